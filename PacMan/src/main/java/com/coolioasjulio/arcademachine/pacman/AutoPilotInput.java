@@ -0,0 +1,80 @@
+package com.coolioasjulio.arcademachine.pacman;
+
+import com.coolioasjulio.arcademachine.pacman.engine.Coord;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * Input that plays the game on its own. Every tick, it steers pac man towards the closest pellet, avoiding the tiles
+ * that ghosts are on if it can.
+ */
+public class AutoPilotInput implements GameInput {
+    private final PacManGame game;
+    private int key = -1;
+
+    /**
+     * Create a new autopilot.
+     *
+     * @param game The game to play.
+     */
+    public AutoPilotInput(PacManGame game) {
+        this.game = game;
+    }
+
+    @Override
+    public void fetchInputs() {
+        key = -1;
+        // The flow field towards pac man also holds the distances from pac man to every tile
+        FlowField field = game.getPacManFlowField();
+        if (field == null) return;
+        LevelMap levelMap = game.getLevelMap();
+        int width = levelMap.getWidth();
+        int target = -1;
+        int targetDistance = Integer.MAX_VALUE;
+        TileSet pellets = game.pellets;
+        for (int tile = pellets.nextTile(0); tile != -1; tile = pellets.nextTile(tile + 1)) {
+            int distance = field.getDistance(tile % width, tile / width);
+            if (distance != -1 && distance < targetDistance) {
+                target = tile;
+                targetDistance = distance;
+            }
+        }
+        if (target == -1) return;
+
+        Coord[] ghostTiles = new Coord[game.ghosts.length];
+        for (int i = 0; i < ghostTiles.length; i++) {
+            Ghost ghost = game.ghosts[i];
+            ghostTiles[i] = ghost == null || ghost.isFleeing() ? null : ghost.getTile();
+        }
+        int fromX = field.getTargetX(), fromY = field.getTargetY();
+        int toX = target % width, toY = target / width;
+        Direction direction = PathFinder.pathFind(levelMap, fromX, fromY, toX, toY, ghostTiles).direction;
+        if (direction == null) {
+            // The ghosts are in the way, so there's no avoiding them
+            direction = PathFinder.pathFind(levelMap, fromX, fromY, toX, toY).direction;
+        }
+        if (direction != null) {
+            key = toKeyCode(direction);
+        }
+    }
+
+    @Override
+    public boolean keyPressed(int keyCode) {
+        return keyCode == key;
+    }
+
+    private static int toKeyCode(Direction direction) {
+        switch (direction) {
+            case NORTH:
+                return KeyEvent.VK_UP;
+            case EAST:
+                return KeyEvent.VK_RIGHT;
+            case SOUTH:
+                return KeyEvent.VK_DOWN;
+            case WEST:
+                return KeyEvent.VK_LEFT;
+            default:
+                return -1;
+        }
+    }
+}
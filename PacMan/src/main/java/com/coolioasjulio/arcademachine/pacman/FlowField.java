@@ -0,0 +1,116 @@
+package com.coolioasjulio.arcademachine.pacman;
+
+import com.coolioasjulio.arcademachine.pacman.engine.Coord;
+
+/**
+ * A map of the distance from every tile of a level to a single target tile. Once it's built, any number of objects can find
+ * their way to the target by stepping downhill, instead of each running their own search.
+ * FlowFields are immutable, so they can be shared between threads.
+ */
+public class FlowField {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final LevelMap levelMap;
+    private final int targetX, targetY;
+    private final int[] distances;
+
+    /**
+     * Build a flow field towards the target tile.
+     *
+     * @param levelMap The level to navigate through.
+     * @param targetX  The x coordinate of the target tile.
+     * @param targetY  The y coordinate of the target tile.
+     */
+    public FlowField(LevelMap levelMap, int targetX, int targetY) {
+        this.levelMap = levelMap;
+        this.targetX = targetX;
+        this.targetY = targetY;
+        distances = new int[levelMap.getWidth() * levelMap.getHeight()];
+        SearchContext.get().fillDistances(levelMap, targetX, targetY, distances);
+    }
+
+    public int getTargetX() {
+        return targetX;
+    }
+
+    public int getTargetY() {
+        return targetY;
+    }
+
+    /**
+     * Get the length of the shortest path from a tile to the target.
+     *
+     * @param x X coordinate, in tiles.
+     * @param y Y coordinate, in tiles.
+     * @return The number of steps to the target, or -1 if the target can't be reached from this tile.
+     */
+    public int getDistance(int x, int y) {
+        return levelMap.isOpen(x, y) ? distances[y * levelMap.getWidth() + x] : -1;
+    }
+
+    /**
+     * Find a path from a tile to the target. This gives the same results as {@link PathFinder#pathFind(LevelMap, int, int, int, int, Coord...)}.
+     * The path is found by stepping downhill through the field. If the exclusions block the downhill path, this falls back to a search.
+     *
+     * @param fromX      The x coordinate of the starting point.
+     * @param fromY      The y coordinate of the starting point.
+     * @param exclusions Any points to exclude from the path. These points are treated like walls.
+     * @return A {@link PathFinder.PathFindingResult} object representing the direction to travel in.
+     */
+    public PathFinder.PathFindingResult pathFind(int fromX, int fromY, Coord... exclusions) {
+        int distance = getDistance(fromX, fromY);
+        if (distance <= 0) {
+            // Either this is the target, or one of the tiles is invalid or unreachable
+            return new PathFinder.PathFindingResult(0, distance == 0 ? Direction.EAST : null);
+        }
+        // Take the steepest step downhill that isn't excluded
+        Direction best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        for (Direction dir : DIRECTIONS) {
+            int x = fromX + Utils.getDeltaX(dir);
+            int y = fromY + Utils.getDeltaY(dir);
+            int d = getDistance(x, y);
+            if (d != -1 && d < bestDistance && !isExcluded(x, y, exclusions)) {
+                best = dir;
+                bestDistance = d;
+            }
+        }
+        // If the rest of the way downhill is clear, no path around the exclusions can be shorter
+        if (best != null && bestDistance == distance - 1 &&
+                !descentCrosses(fromX + Utils.getDeltaX(best), fromY + Utils.getDeltaY(best), exclusions)) {
+            return new PathFinder.PathFindingResult(distance + 1, best);
+        }
+        return PathFinder.pathFind(levelMap, fromX, fromY, targetX, targetY, exclusions);
+    }
+
+    /**
+     * Checks if the downhill path from a tile to the target goes through any of the exclusions, including the starting tile.
+     */
+    private boolean descentCrosses(int x, int y, Coord[] exclusions) {
+        if (exclusions.length == 0) return false;
+        int distance = getDistance(x, y);
+        while (true) {
+            if (isExcluded(x, y, exclusions)) return true;
+            if (distance == 0) return false;
+            for (Direction dir : DIRECTIONS) {
+                int nx = x + Utils.getDeltaX(dir);
+                int ny = y + Utils.getDeltaY(dir);
+                if (getDistance(nx, ny) == distance - 1) {
+                    x = nx;
+                    y = ny;
+                    break;
+                }
+            }
+            distance--;
+        }
+    }
+
+    private static boolean isExcluded(int x, int y, Coord[] exclusions) {
+        for (Coord c : exclusions) {
+            if (c != null && c.x == x && c.y == y) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,47 @@
+package com.coolioasjulio.arcademachine.pacman;
+
+import com.coolioasjulio.arcademachine.launcher.gameutils.InputManager;
+
+/**
+ * A source of player input. Inputs are collected once per tick, and key presses are reported for the whole tick.
+ */
+public interface GameInput {
+    /**
+     * Input from the {@link InputManager}, which is how the arcade machine sends inputs to the game.
+     */
+    GameInput INPUT_MANAGER = new GameInput() {
+        @Override
+        public void enable() {
+            InputManager.enable();
+        }
+
+        @Override
+        public void fetchInputs() {
+            InputManager.fetchInputs();
+        }
+
+        @Override
+        public boolean keyPressed(int keyCode) {
+            return InputManager.keyPressed(keyCode);
+        }
+    };
+
+    /**
+     * Start receiving input. Called once when a game starts. Does nothing by default.
+     */
+    default void enable() {
+    }
+
+    /**
+     * Collect the inputs for the next tick.
+     */
+    void fetchInputs();
+
+    /**
+     * Find if a key was pressed during this tick.
+     *
+     * @param keyCode The key code, from {@link java.awt.event.KeyEvent}.
+     * @return True if the key was pressed, false otherwise.
+     */
+    boolean keyPressed(int keyCode);
+}
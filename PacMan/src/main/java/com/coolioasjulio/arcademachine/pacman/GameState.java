@@ -0,0 +1,108 @@
+package com.coolioasjulio.arcademachine.pacman;
+
+import com.coolioasjulio.arcademachine.pacman.engine.Coord;
+
+/**
+ * An immutable snapshot of the parts of the game that ghosts base their decisions on. A snapshot is taken once per tick,
+ * before any ghost moves, so every ghost sees the same game no matter what order they think in.
+ * Since nothing in it can change, a snapshot can be shared between threads.
+ */
+public final class GameState {
+    private final LevelMap levelMap;
+    private final int size;
+    private final FlowField pacManFlowField;
+    private final Coord pacManTile;
+    private final Coord pacManPrevTile;
+    private final Direction pacManDirection;
+    private final Coord[] ghostTiles;
+
+    /**
+     * Create a snapshot of the game. The coordinates are copied, so they can be changed afterwards.
+     *
+     * @param levelMap        The map of the active level.
+     * @param size            The side length of a tile in pixels.
+     * @param pacManFlowField The flow field towards pac man's tile.
+     * @param pacManTile      The tile pac man is on.
+     * @param pacManPrevTile  The tile pac man was on before, or null if pac man hasn't moved yet.
+     * @param pacManDirection The direction pac man is moving in.
+     * @param ghostTiles      The tile of each ghost, by ghost index. Ghosts that aren't alive are null.
+     */
+    public GameState(LevelMap levelMap, int size, FlowField pacManFlowField, Coord pacManTile, Coord pacManPrevTile,
+                     Direction pacManDirection, Coord... ghostTiles) {
+        this.levelMap = levelMap;
+        this.size = size;
+        this.pacManFlowField = pacManFlowField;
+        this.pacManTile = copy(pacManTile);
+        this.pacManPrevTile = copy(pacManPrevTile);
+        this.pacManDirection = pacManDirection;
+        this.ghostTiles = new Coord[ghostTiles.length];
+        for (int i = 0; i < ghostTiles.length; i++) {
+            this.ghostTiles[i] = copy(ghostTiles[i]);
+        }
+    }
+
+    private static Coord copy(Coord c) {
+        return c == null ? null : new Coord(c.x, c.y);
+    }
+
+    public LevelMap getLevelMap() {
+        return levelMap;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Get the flow field towards pac man's tile. Flow fields are immutable, so this can be used from any thread.
+     *
+     * @return The flow field towards pac man.
+     */
+    public FlowField getPacManFlowField() {
+        return pacManFlowField;
+    }
+
+    public int getPacManTileX() {
+        return pacManTile.x;
+    }
+
+    public int getPacManTileY() {
+        return pacManTile.y;
+    }
+
+    public Coord getPacManTile() {
+        return copy(pacManTile);
+    }
+
+    /**
+     * Get the tile pac man was on before the current one.
+     *
+     * @return The previous tile of pac man, or null if pac man hasn't moved yet.
+     */
+    public Coord getPacManPrevTile() {
+        return copy(pacManPrevTile);
+    }
+
+    public Direction getPacManDirection() {
+        return pacManDirection;
+    }
+
+    /**
+     * Get the number of ghost slots, including ghosts that aren't alive.
+     *
+     * @return The number of ghosts the game can have at once.
+     */
+    public int getNumGhosts() {
+        return ghostTiles.length;
+    }
+
+    /**
+     * Get the tile of a ghost.
+     *
+     * @param index The index of the ghost.
+     * @return The tile the ghost is on, or null if the ghost isn't alive or there's no ghost with that index.
+     */
+    public Coord getGhostTile(int index) {
+        return index >= 0 && index < ghostTiles.length ? copy(ghostTiles[index]) : null;
+    }
+}
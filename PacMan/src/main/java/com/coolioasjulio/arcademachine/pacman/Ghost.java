@@ -23,6 +23,8 @@ public class Ghost extends GameObject {
     private Coord prevTile;
     private boolean fleeing = false;
     private GhostFleeBehavior fleeBehavior = new GhostFleeBehavior(this);
+    private Direction decision = null;
+    private Coord decisionTile = null;
 
     /**
      * Create a new Ghost object.
@@ -47,6 +49,7 @@ public class Ghost extends GameObject {
      */
     public void setBehavior(GhostBehavior behavior) {
         this.behavior = behavior;
+        decisionTile = null;
     }
 
     /**
@@ -75,6 +78,7 @@ public class Ghost extends GameObject {
     public void setFleeing(boolean fleeing) {
         fleeBehavior.started = false;
         this.fleeing = fleeing;
+        decisionTile = null;
         // Activate the flee sprite
         setActiveSprite(fleeing ? 1 : 0);
     }
@@ -84,17 +88,15 @@ public class Ghost extends GameObject {
     }
 
     /**
-     * Update the ghost by a timestep. The direction it moves in is determined by the active behavior. (e.g. nominal behavior, and is fleeing)
+     * Update the ghost by a timestep. The direction it moves in is the one decided by the last call to {@link #think(GameState)},
+     * so that should be called first. If the ghost hasn't decided anything for its current tile, it keeps moving the way it was going.
      * This handles moving the ghost around, avoiding obstacles and navigating through the level.
      *
      * @param levelMap The map of the active level.
      * @param dt       The elapsed time in seconds since the last update.
      */
     public void update(LevelMap levelMap, double dt) {
-        // Determine the active behavior
-        GhostBehavior behavior = fleeing ? fleeBehavior : this.behavior;
-        // If for any reason the behavior is null, just move east
-        Direction newDir = behavior == null ? Direction.EAST : behavior.getDirection();
+        Direction newDir = getTile().equals(decisionTile) ? decision : null;
         // newDir may be null in edge cases (such as moving through the tunnel)
         // In these cases, don't change the direction, just keep moving
         // This handles direction changes
@@ -126,7 +128,7 @@ public class Ghost extends GameObject {
 
         Coord currTile = getTile();
         // Move the ghost in the appropriate direction by the appropriate amount
-        Utils.moveGameObject(this, levelMap, direction, Utils.round(speed * dt), size);
+        Utils.moveGameObject(this, levelMap, direction, speed * dt, size);
         // If required, warp around the edges of the map
         Utils.warpEdges(this, levelMap, size);
         // If the new tile is different, set the previous tile. This is used for pathfinding.
@@ -135,6 +137,40 @@ public class Ghost extends GameObject {
         }
     }
 
+    /**
+     * Decide the direction the ghost wants to move in, which is used by the next {@link #update(LevelMap, double)}.
+     * Ghosts only have a choice to make at junctions, so the active behavior is only asked once per junction, and the decision
+     * is kept until the ghost reaches another tile. In between junctions, the ghost just follows the corridor it's in.
+     * This only changes the ghost and its behaviors, so different ghosts can think at the same time on different threads.
+     *
+     * @param state A snapshot of the game to base the decision on.
+     */
+    public void think(GameState state) {
+        Coord tile = getTile();
+        if (tile.equals(decisionTile)) {
+            return;
+        }
+        // Determine the active behavior
+        GhostBehavior behavior = fleeing ? fleeBehavior : this.behavior;
+        LevelMap levelMap = state.getLevelMap();
+        if (decisionTile != null && direction != null && !levelMap.isJunction(tile.x, tile.y)) {
+            decision = levelMap.getJunctionGraph().followCorridor(tile.x, tile.y, direction);
+        } else {
+            // If for any reason the behavior is null, just move east
+            decision = behavior == null ? Direction.EAST : behavior.getDirection(state);
+        }
+        decisionTile = tile;
+    }
+
+    /**
+     * Checks if the ghost has to decide where to go on its current tile.
+     *
+     * @return True if {@link #think(GameState)} has to do any work, false if the ghost already made a decision here.
+     */
+    public boolean needsDecision() {
+        return !getTile().equals(decisionTile);
+    }
+
     public Direction getDirection() {
         return direction;
     }
@@ -163,16 +199,18 @@ public class Ghost extends GameObject {
         }
 
         /**
-         * Give the movement direction for the ghost.
+         * Give the movement direction for the ghost. This may be called from any thread, so it should only read the game
+         * through the snapshot. Behaviors are only ever called by their own ghost, so they can still keep their own state.
          *
+         * @param state A snapshot of the game at the start of the tick.
          * @return The movement direction for this ghost.
          */
-        public abstract Direction getDirection();
+        public abstract Direction getDirection(GameState state);
     }
 
     private static class GhostSprite extends Sprite {
-        private Color color;
-        private int size;
+        private final Color color;
+        private final int size;
 
         public GhostSprite(int size, Color color) {
             super(0, 0, 0);
@@ -180,9 +218,9 @@ public class Ghost extends GameObject {
             this.size = size;
         }
 
-        public void drawActiveImage(Drawer d) {
+        public void drawImage(Drawer d, int index, int x, int y) {
             d.setColor(color);
-            d.fillOval(getX(), getY(), size, size);
+            d.fillOval(x, y, size, size);
         }
 
         public int numImages() {
@@ -0,0 +1,123 @@
+package com.coolioasjulio.arcademachine.pacman;
+
+import com.coolioasjulio.arcademachine.pacman.behaviors.GhostAmbushBehavior;
+import com.coolioasjulio.arcademachine.pacman.behaviors.GhostChaseBehavior;
+import com.coolioasjulio.arcademachine.pacman.behaviors.GhostObliviousBehavior;
+import com.coolioasjulio.arcademachine.pacman.behaviors.GhostPinchBehavior;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Settings for how many ghosts a game has, when they spawn, and how they behave.
+ * Ghosts are numbered by the order of their slots, and each ghost gets the behavior at its index in the behavior mix,
+ * wrapping around once the mix runs out.
+ */
+public class GhostConfig {
+    /**
+     * Creates the behavior of a newly spawned ghost.
+     */
+    public interface BehaviorFactory {
+        /**
+         * Create a behavior.
+         *
+         * @param ghost The ghost that the behavior is for.
+         * @param index The index of the ghost.
+         * @return The behavior of the ghost.
+         */
+        Ghost.GhostBehavior create(Ghost ghost, int index);
+    }
+
+    /**
+     * The original four ghosts: chase, ambush, pinch, and oblivious. The pinch ghost works with the chase ghost before it.
+     */
+    public static final List<BehaviorFactory> CLASSIC_BEHAVIORS = Collections.unmodifiableList(Arrays.asList(
+            (g, i) -> new GhostChaseBehavior(g),
+            (g, i) -> new GhostAmbushBehavior(g),
+            (g, i) -> new GhostPinchBehavior(g, i - 2),
+            (g, i) -> new GhostObliviousBehavior(g)));
+
+    /**
+     * The normal game. Up to four ghosts, one every 10 seconds.
+     */
+    public static final GhostConfig CLASSIC = new GhostConfig(4, 10, 1, true, CLASSIC_BEHAVIORS);
+
+    /**
+     * A preset for stress testing. Lots of ghosts spawn quickly with the classic behavior mix, and they don't kill pac man,
+     * so they keep piling up instead of being cleared by a death.
+     *
+     * @param maxGhosts The number of ghosts to build up to.
+     * @return The horde configuration.
+     */
+    public static GhostConfig horde(int maxGhosts) {
+        return new GhostConfig(maxGhosts, 0.25, 4, false, CLASSIC_BEHAVIORS);
+    }
+
+    private final int maxGhosts;
+    private final double spawnInterval;
+    private final int ghostsPerSpawn;
+    private final boolean lethal;
+    private final List<BehaviorFactory> behaviors;
+
+    /**
+     * Create a ghost configuration.
+     *
+     * @param maxGhosts      The most ghosts that can be alive at once.
+     * @param spawnInterval  The time between spawns, in seconds.
+     * @param ghostsPerSpawn The number of ghosts that spawn at once.
+     * @param lethal         If true, touching a ghost kills pac man. Otherwise, ghosts only get eaten.
+     * @param behaviors      The behavior mix. Ghost i gets the behavior at i modulo the size of the mix.
+     */
+    public GhostConfig(int maxGhosts, double spawnInterval, int ghostsPerSpawn, boolean lethal, List<BehaviorFactory> behaviors) {
+        if (maxGhosts < 0) {
+            throw new IllegalArgumentException("Max ghosts cannot be negative!");
+        }
+        if (spawnInterval < 0) {
+            throw new IllegalArgumentException("Spawn interval cannot be negative!");
+        }
+        if (ghostsPerSpawn < 1) {
+            throw new IllegalArgumentException("At least one ghost has to spawn at a time!");
+        }
+        if (behaviors.isEmpty()) {
+            throw new IllegalArgumentException("There has to be at least one behavior!");
+        }
+        this.maxGhosts = maxGhosts;
+        this.spawnInterval = spawnInterval;
+        this.ghostsPerSpawn = ghostsPerSpawn;
+        this.lethal = lethal;
+        this.behaviors = Collections.unmodifiableList(new ArrayList<>(behaviors));
+    }
+
+    public int getMaxGhosts() {
+        return maxGhosts;
+    }
+
+    public double getSpawnInterval() {
+        return spawnInterval;
+    }
+
+    public int getGhostsPerSpawn() {
+        return ghostsPerSpawn;
+    }
+
+    public boolean isLethal() {
+        return lethal;
+    }
+
+    public List<BehaviorFactory> getBehaviors() {
+        return behaviors;
+    }
+
+    /**
+     * Create the behavior for a ghost from the behavior mix.
+     *
+     * @param ghost The ghost to create the behavior for.
+     * @param index The index of the ghost.
+     * @return The behavior of the ghost.
+     */
+    public Ghost.GhostBehavior createBehavior(Ghost ghost, int index) {
+        return behaviors.get(index % behaviors.size()).create(ghost, index);
+    }
+}
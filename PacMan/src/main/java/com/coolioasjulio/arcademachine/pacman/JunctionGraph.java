@@ -0,0 +1,278 @@
+package com.coolioasjulio.arcademachine.pacman;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A compressed version of a level, where the nodes are junctions and the edges are the corridors between them.
+ * A junction is any open tile that doesn't have exactly two open neighbors, so dead ends are junctions too.
+ * Every other open tile is part of exactly one corridor, and only has one way forward and one way back.
+ * Since the walls of a level never change after it's loaded, this only has to be built once per level.
+ */
+class JunctionGraph {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int width;
+    // Indexed by tile
+    private final int[] tileNode;
+    private final int[] tileEdge;
+    private final int[] tileOffset;
+    private final byte[] towardStart;
+    private final byte[] towardEnd;
+    // Indexed by node
+    private final int[] nodeTiles;
+    // Indexed by node * 4 + direction ordinal
+    private final int[] halfEdges;
+    // Indexed by edge
+    private final int[] edgeStart;
+    private final int[] edgeEnd;
+    private final int[] edgeLength;
+    private final byte[] edgeStartDirection;
+    private final byte[] edgeEndDirection;
+    private final int[] edgeTilesOffset;
+    private final int[] edgeTiles;
+
+    /**
+     * Build the junction graph of a level.
+     *
+     * @param levelMap The level to build the graph for.
+     */
+    JunctionGraph(LevelMap levelMap) {
+        width = levelMap.getWidth();
+        int numTiles = width * levelMap.getHeight();
+        tileNode = new int[numTiles];
+        tileEdge = new int[numTiles];
+        tileOffset = new int[numTiles];
+        towardStart = new byte[numTiles];
+        towardEnd = new byte[numTiles];
+        Arrays.fill(tileNode, -1);
+        Arrays.fill(tileEdge, -1);
+
+        // Every open tile that isn't in the middle of a corridor is a junction
+        List<Integer> nodes = new ArrayList<>();
+        for (int tile = 0; tile < numTiles; tile++) {
+            int x = tile % width, y = tile / width;
+            if (levelMap.isOpen(x, y) && countOpenNeighbors(levelMap, x, y) != 2) {
+                tileNode[tile] = nodes.size();
+                nodes.add(tile);
+            }
+        }
+
+        List<int[]> edges = new ArrayList<>();
+        List<Integer> corridorTiles = new ArrayList<>();
+        int[] halfEdges = new int[nodes.size() * 4];
+        Arrays.fill(halfEdges, -1);
+        for (int node = 0; node < nodes.size(); node++) {
+            halfEdges = traceEdges(levelMap, node, nodes, edges, corridorTiles, halfEdges);
+        }
+        // Corridors that loop back on themselves without ever reaching a junction need a junction somewhere on the loop
+        for (int tile = 0; tile < numTiles; tile++) {
+            int x = tile % width, y = tile / width;
+            if (levelMap.isOpen(x, y) && tileNode[tile] == -1 && tileEdge[tile] == -1) {
+                tileNode[tile] = nodes.size();
+                nodes.add(tile);
+                halfEdges = traceEdges(levelMap, tileNode[tile], nodes, edges, corridorTiles, halfEdges);
+            }
+        }
+
+        nodeTiles = nodes.stream().mapToInt(Integer::intValue).toArray();
+        this.halfEdges = Arrays.copyOf(halfEdges, nodeTiles.length * 4);
+        int numEdges = edges.size();
+        edgeStart = new int[numEdges];
+        edgeEnd = new int[numEdges];
+        edgeLength = new int[numEdges];
+        edgeStartDirection = new byte[numEdges];
+        edgeEndDirection = new byte[numEdges];
+        edgeTilesOffset = new int[numEdges];
+        for (int e = 0; e < numEdges; e++) {
+            int[] edge = edges.get(e);
+            edgeStart[e] = edge[0];
+            edgeEnd[e] = edge[1];
+            edgeLength[e] = edge[2];
+            edgeStartDirection[e] = (byte) edge[3];
+            edgeEndDirection[e] = (byte) edge[4];
+            edgeTilesOffset[e] = edge[5];
+        }
+        edgeTiles = corridorTiles.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Follow every corridor leaving a junction that hasn't been followed yet, and record it as an edge.
+     *
+     * @return The half edge array, which may have been grown to fit every junction.
+     */
+    private int[] traceEdges(LevelMap levelMap, int node, List<Integer> nodes, List<int[]> edges,
+                             List<Integer> corridorTiles, int[] halfEdges) {
+        if (halfEdges.length < nodes.size() * 4) {
+            int oldLength = halfEdges.length;
+            halfEdges = Arrays.copyOf(halfEdges, nodes.size() * 8);
+            Arrays.fill(halfEdges, oldLength, halfEdges.length, -1);
+        }
+        int start = nodes.get(node);
+        for (Direction dir : DIRECTIONS) {
+            int x = start % width + Utils.getDeltaX(dir);
+            int y = start / width + Utils.getDeltaY(dir);
+            // Skip walls and corridors that were already traced from the other end
+            if (!levelMap.isOpen(x, y) || halfEdges[node * 4 + dir.ordinal()] != -1) continue;
+            int tile = y * width + x;
+            int edge = edges.size();
+            int tilesOffset = corridorTiles.size();
+            Direction heading = dir;
+            int length = 1;
+            while (tileNode[tile] == -1) {
+                tileEdge[tile] = edge;
+                tileOffset[tile] = length;
+                towardStart[tile] = (byte) Utils.opposite(heading).ordinal();
+                corridorTiles.add(tile);
+                // Corridor tiles have exactly two open neighbors, so the way forward is whichever one isn't behind us
+                for (Direction next : DIRECTIONS) {
+                    if (next != Utils.opposite(heading) &&
+                            levelMap.isOpen(tile % width + Utils.getDeltaX(next), tile / width + Utils.getDeltaY(next))) {
+                        heading = next;
+                        break;
+                    }
+                }
+                towardEnd[tile] = (byte) heading.ordinal();
+                tile = (tile / width + Utils.getDeltaY(heading)) * width + tile % width + Utils.getDeltaX(heading);
+                length++;
+            }
+            int end = tileNode[tile];
+            Direction endDir = Utils.opposite(heading);
+            edges.add(new int[]{node, end, length, dir.ordinal(), endDir.ordinal(), tilesOffset});
+            halfEdges[node * 4 + dir.ordinal()] = edge;
+            halfEdges[end * 4 + endDir.ordinal()] = edge;
+        }
+        return halfEdges;
+    }
+
+    private static int countOpenNeighbors(LevelMap levelMap, int x, int y) {
+        int count = 0;
+        for (Direction dir : DIRECTIONS) {
+            if (levelMap.isOpen(x + Utils.getDeltaX(dir), y + Utils.getDeltaY(dir))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int numNodes() {
+        return nodeTiles.length;
+    }
+
+    int numEdges() {
+        return edgeStart.length;
+    }
+
+    /**
+     * Get the junction at a tile.
+     *
+     * @return The index of the junction, or -1 if the tile is a wall or in the middle of a corridor.
+     */
+    int getNode(int tile) {
+        return tileNode[tile];
+    }
+
+    int getNodeTile(int node) {
+        return nodeTiles[node];
+    }
+
+    /**
+     * Get the corridor leaving a junction in a direction.
+     *
+     * @return The index of the edge, or -1 if there is no corridor in that direction.
+     */
+    int getEdge(int node, int direction) {
+        return halfEdges[node * 4 + direction];
+    }
+
+    /**
+     * Get the corridor a tile is in.
+     *
+     * @return The index of the edge, or -1 if the tile is a wall or a junction.
+     */
+    int getTileEdge(int tile) {
+        return tileEdge[tile];
+    }
+
+    /**
+     * Get the number of steps from the start of the tile's corridor to the tile.
+     */
+    int getTileOffset(int tile) {
+        return tileOffset[tile];
+    }
+
+    /**
+     * Get the direction to move in from a corridor tile to get to the start of its corridor.
+     */
+    int getTowardStart(int tile) {
+        return towardStart[tile];
+    }
+
+    /**
+     * Get the direction to move in from a corridor tile to get to the end of its corridor.
+     */
+    int getTowardEnd(int tile) {
+        return towardEnd[tile];
+    }
+
+    int getEdgeStart(int edge) {
+        return edgeStart[edge];
+    }
+
+    int getEdgeEnd(int edge) {
+        return edgeEnd[edge];
+    }
+
+    int getEdgeLength(int edge) {
+        return edgeLength[edge];
+    }
+
+    /**
+     * Get the direction to leave the start junction in to go down this corridor.
+     */
+    int getEdgeStartDirection(int edge) {
+        return edgeStartDirection[edge];
+    }
+
+    /**
+     * Get the direction to leave the end junction in to go down this corridor.
+     */
+    int getEdgeEndDirection(int edge) {
+        return edgeEndDirection[edge];
+    }
+
+    /**
+     * Get a tile in the middle of a corridor.
+     *
+     * @param edge   The corridor.
+     * @param offset The number of steps from the start of the corridor, in the range [1, length).
+     * @return The tile at that offset.
+     */
+    int getEdgeTile(int edge, int offset) {
+        return edgeTiles[edgeTilesOffset[edge] + offset - 1];
+    }
+
+    /**
+     * Get the direction to keep moving in to follow a corridor.
+     *
+     * @param x       X coordinate of a corridor tile.
+     * @param y       Y coordinate of a corridor tile.
+     * @param heading The direction the object is currently moving in.
+     * @return The direction to move in to keep following the corridor, or null if the tile isn't in a corridor or the
+     * heading isn't along the corridor.
+     */
+    Direction followCorridor(int x, int y, Direction heading) {
+        if (!Utils.inRange(x, 0, width) || !Utils.inRange(y, 0, tileEdge.length / width)) return null;
+        int tile = y * width + x;
+        if (tileEdge[tile] == -1 || heading == null) return null;
+        // If we came from the start, keep going towards the end, and vice versa
+        if (heading == Utils.opposite(DIRECTIONS[towardStart[tile]])) return DIRECTIONS[towardEnd[tile]];
+        if (heading == Utils.opposite(DIRECTIONS[towardEnd[tile]])) return DIRECTIONS[towardStart[tile]];
+        return null;
+    }
+}
@@ -0,0 +1,56 @@
+package com.coolioasjulio.arcademachine.pacman;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Compiles level images into level files, which can be loaded with {@link LevelMap#loadFromFile(Path)}.
+ * The path table is precomputed and included in the file, so it doesn't have to be built when the game starts.
+ */
+public class LevelCompiler {
+    /**
+     * The most open tiles a compiled path table can have. The table takes 3 bytes per pair of open tiles, and the whole file
+     * has to fit in one memory mapping.
+     */
+    public static final int MAX_OPEN_TILES = 26000;
+
+    /**
+     * Compile a level image from the command line.
+     *
+     * @param args The input image, the output file, and optionally the most open tiles to build a path table for.
+     * @throws IOException If the image couldn't be read or the file couldn't be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: LevelCompiler <input.png> <output.lvl> [max open tiles]");
+            System.exit(1);
+        }
+        int maxOpenTiles = args.length > 2 ? Integer.parseInt(args[2]) : PathTable.MAX_OPEN_TILES;
+        long start = System.nanoTime();
+        compile(Paths.get(args[0]), Paths.get(args[1]), maxOpenTiles);
+        System.out.printf("Compiled %s to %s in %.2fs%n", args[0], args[1], (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Compile a level image into a level file.
+     *
+     * @param image        The level image, in the format of {@link LevelMap#loadFromImg(BufferedImage)}.
+     * @param output       The level file to write.
+     * @param maxOpenTiles The most open tiles the level can have to include a path table. Bigger levels are saved without one.
+     * @throws IOException If the image couldn't be read or the file couldn't be written.
+     */
+    public static void compile(Path image, Path output, int maxOpenTiles) throws IOException {
+        if (maxOpenTiles < 0 || maxOpenTiles > MAX_OPEN_TILES) {
+            throw new IllegalArgumentException("Max open tiles must be in the range [0," + MAX_OPEN_TILES + "]!");
+        }
+        BufferedImage img = ImageIO.read(image.toFile());
+        if (img == null) {
+            throw new IOException("Unsupported image format: " + image);
+        }
+        LevelMap levelMap = LevelMap.loadFromImg(img);
+        LevelFile.write(levelMap, output, PathTable.build(levelMap, maxOpenTiles));
+    }
+}
@@ -0,0 +1,176 @@
+package com.coolioasjulio.arcademachine.pacman;
+
+import com.coolioasjulio.arcademachine.pacman.engine.Coord;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes compiled level files. A level file holds everything in a {@link LevelMap} in the same layout that's used
+ * in memory, so loading one is just mapping the file. The path table is used straight out of the mapped file.
+ * <p>
+ * The layout is, in little endian order:
+ * <pre>
+ * int    magic ("PLVL")
+ * int    version
+ * int    width, height
+ * int    spawnX, spawnY
+ * int    number of powerups
+ * int    number of open tiles in the path table, or -1 if there is no path table
+ * int[]  x and y of each powerup
+ *        padding up to a multiple of 8 bytes
+ * long[] the wall bitset, with the bit for a tile at index y * width + x
+ * short[] path table distances, one row per open tile in row-major order
+ * byte[] path table directions, in the same order
+ * </pre>
+ */
+class LevelFile {
+    static final int MAGIC = 0x4C564C50; // "PLVL" in little endian
+    static final int VERSION = 1;
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    private static final int HEADER_SIZE = 32;
+    // The size of the buffer the path table is written through
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private LevelFile() {
+    }
+
+    /**
+     * Write a level to a file, replacing the file if it exists.
+     *
+     * @param levelMap The level to write.
+     * @param path     The file to write to.
+     * @param table    The path table of the level, or null to leave it out.
+     * @throws IOException If the file couldn't be written.
+     */
+    static void write(LevelMap levelMap, Path path, PathTable table) throws IOException {
+        Coord[] powerups = levelMap.getPowerupsCoords();
+        long[] walls = levelMap.getWallWords();
+        int numOpen = table == null ? -1 : table.getNumOpen();
+        long cells = table == null ? 0 : (long) numOpen * numOpen;
+        int wallsStart = wallsStart(powerups.length);
+        long size = wallsStart + 8L * walls.length + 3 * cells;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The level is too big to be saved! Try leaving out the path table.");
+        }
+
+        // Only the header and the walls are put together in memory. The path table can be as big as the file, so it's
+        // streamed to the file in chunks instead.
+        ByteBuffer buf = ByteBuffer.allocate(wallsStart + 8 * walls.length).order(ORDER);
+        buf.putInt(MAGIC).putInt(VERSION);
+        buf.putInt(levelMap.getWidth()).putInt(levelMap.getHeight());
+        buf.putInt(levelMap.spawnX()).putInt(levelMap.spawnY());
+        buf.putInt(powerups.length).putInt(numOpen);
+        for (Coord c : powerups) {
+            buf.putInt(c.x).putInt(c.y);
+        }
+        buf.position(wallsStart);
+        buf.asLongBuffer().put(walls);
+        buf.rewind();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            writeFully(channel, buf);
+            if (table != null) {
+                writeShorts(channel, table.getDistances());
+                // The directions are bytes, so they're already in the file's layout
+                writeFully(channel, table.getDirections());
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+    }
+
+    /**
+     * Write shorts to a file in the byte order of level files, a chunk at a time.
+     */
+    private static void writeShorts(FileChannel channel, ShortBuffer shorts) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocateDirect(CHUNK_SIZE).order(ORDER);
+        while (shorts.hasRemaining()) {
+            int n = Math.min(shorts.remaining(), CHUNK_SIZE / 2);
+            ShortBuffer part = shorts.duplicate();
+            part.limit(part.position() + n);
+            chunk.clear();
+            chunk.asShortBuffer().put(part);
+            chunk.limit(2 * n);
+            writeFully(channel, chunk);
+            shorts.position(shorts.position() + n);
+        }
+    }
+
+    /**
+     * Load a level by mapping a level file into memory. The walls are copied out of the file, but the path table is used
+     * directly from the mapped file.
+     *
+     * @param path The level file.
+     * @return The level in the file.
+     * @throws IOException If the file couldn't be read.
+     */
+    static LevelMap map(Path path) throws IOException {
+        ByteBuffer buf;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The level file is too big!");
+            }
+            // The mapping stays valid after the channel is closed
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ORDER);
+        }
+        if (buf.capacity() < HEADER_SIZE || buf.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a level file!");
+        }
+        if (buf.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported level file version: " + buf.getInt(4));
+        }
+        int width = buf.getInt(8), height = buf.getInt(12);
+        int spawnX = buf.getInt(16), spawnY = buf.getInt(20);
+        int numPowerups = buf.getInt(24), numOpen = buf.getInt(28);
+        if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE || numPowerups < 0 || numOpen < -1 ||
+                !Utils.inRange(spawnX, 0, width) || !Utils.inRange(spawnY, 0, height)) {
+            throw new IllegalArgumentException("Corrupt level file header!");
+        }
+        int numWords = (int) (((long) width * height + 63) / 64);
+        long cells = numOpen == -1 ? 0 : (long) numOpen * numOpen;
+        long wallsStart = wallsStart(numPowerups);
+        if (wallsStart + 8L * numWords + 3 * cells != buf.capacity()) {
+            throw new IllegalArgumentException("The level file is the wrong size!");
+        }
+
+        Coord[] powerups = new Coord[numPowerups];
+        for (int i = 0; i < numPowerups; i++) {
+            powerups[i] = new Coord(buf.getInt(HEADER_SIZE + 8 * i), buf.getInt(HEADER_SIZE + 8 * i + 4));
+        }
+        long[] walls = new long[numWords];
+        slice(buf, (int) wallsStart, 8 * numWords).asLongBuffer().get(walls);
+        LevelMap levelMap = new LevelMap(width, height, walls, spawnX, spawnY, powerups);
+        if (numOpen != -1) {
+            int tableStart = (int) wallsStart + 8 * numWords;
+            levelMap.setPathTable(PathTable.wrap(levelMap, slice(buf, tableStart, (int) (2 * cells)).asShortBuffer(),
+                    slice(buf, tableStart + (int) (2 * cells), (int) cells)));
+        }
+        return levelMap;
+    }
+
+    /**
+     * The walls start after the header and powerups, aligned to 8 bytes.
+     */
+    private static int wallsStart(int numPowerups) {
+        return (HEADER_SIZE + 8 * numPowerups + 7) & ~7;
+    }
+
+    /**
+     * Get a view of part of a buffer, in the byte order of level files.
+     */
+    private static ByteBuffer slice(ByteBuffer buf, int offset, int length) {
+        ByteBuffer view = buf.duplicate();
+        view.limit(offset + length).position(offset);
+        return view.slice().order(ORDER);
+    }
+}
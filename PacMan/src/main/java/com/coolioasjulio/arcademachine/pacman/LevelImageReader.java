@@ -0,0 +1,199 @@
+package com.coolioasjulio.arcademachine.pacman;
+
+import com.coolioasjulio.arcademachine.pacman.engine.Coord;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.IndexColorModel;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Turns an image into a level. For the common image formats, the pixels are read straight out of the image's data buffer
+ * instead of converting every pixel through the color model. Big images are split into bands that are read in parallel.
+ * Every band starts on a multiple of 64 pixels, so each band fills its own words of the wall bitset.
+ */
+class LevelImageReader {
+    private static final int WALL = Color.BLACK.getRGB();
+    private static final int SPAWN = Color.RED.getRGB();
+    private static final int POWERUP = Color.GREEN.getRGB();
+    // The number of pixels in a band. This has to be a multiple of 64.
+    private static final int BAND_PIXELS = 1 << 18;
+
+    /**
+     * Reads a horizontal run of pixels as ARGB values, the same values {@link BufferedImage#getRGB(int, int)} would give.
+     * Readers may be used from several threads at once.
+     */
+    private interface RowReader {
+        void read(int x, int y, int length, int[] argb);
+    }
+
+    /**
+     * The results of reading one band of the image.
+     */
+    private static class Band {
+        private int lastSpawn = -1;
+        private final List<Coord> powerups = new ArrayList<>();
+    }
+
+    private LevelImageReader() {
+    }
+
+    /**
+     * Load a level from an image. See {@link LevelMap#loadFromImg(BufferedImage)}.
+     *
+     * @param image The image to load the level from.
+     * @return The level in the image.
+     */
+    static LevelMap read(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        long numPixels = (long) width * height;
+        if (numPixels > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The supplied image is too big to be a level!");
+        }
+        RowReader reader = createReader(image);
+        long[] walls = new long[(int) ((numPixels + 63) / 64)];
+        int numBands = (int) ((numPixels + BAND_PIXELS - 1) / BAND_PIXELS);
+        Band[] bands = new Band[numBands];
+        IntStream indices = IntStream.range(0, numBands);
+        if (numBands > 1) {
+            indices = indices.parallel();
+        }
+        indices.forEach(b -> bands[b] = readBand(reader, width, b * BAND_PIXELS,
+                (int) Math.min(numPixels, (long) (b + 1) * BAND_PIXELS), walls));
+
+        // Combine the bands in order, so the last spawn point wins and the powerups stay in row-major order
+        int spawn = -1;
+        List<Coord> powerups = new ArrayList<>();
+        for (Band band : bands) {
+            if (band.lastSpawn != -1) {
+                spawn = band.lastSpawn;
+            }
+            powerups.addAll(band.powerups);
+        }
+        if (spawn == -1) {
+            throw new IllegalArgumentException("The supplied image doesn't have a spawn point! The spawn point must be a pixel with values (255,0,0)");
+        }
+        return new LevelMap(width, height, walls, spawn % width, spawn / width, powerups.toArray(new Coord[0]));
+    }
+
+    /**
+     * Classify the pixels in a range of pixel indices. The range has to start on a multiple of 64.
+     */
+    private static Band readBand(RowReader reader, int width, int start, int end, long[] walls) {
+        Band band = new Band();
+        int[] argb = new int[Math.min(width, end - start)];
+        for (int i = start; i < end; ) {
+            int y = i / width, x = i % width;
+            int length = Math.min(width - x, end - i);
+            reader.read(x, y, length, argb);
+            for (int k = 0; k < length; k++) {
+                int pixel = argb[k];
+                if (pixel == WALL) {
+                    int index = i + k;
+                    walls[index >>> 6] |= 1L << index;
+                } else if (pixel == SPAWN) {
+                    band.lastSpawn = i + k;
+                } else if (pixel == POWERUP) {
+                    band.powerups.add(new Coord(x + k, y));
+                }
+            }
+            i += length;
+        }
+        return band;
+    }
+
+    /**
+     * Pick the fastest way to read the pixels of an image.
+     */
+    private static RowReader createReader(BufferedImage image) {
+        WritableRaster raster = image.getRaster();
+        ColorModel cm = image.getColorModel();
+        SampleModel sm = raster.getSampleModel();
+        DataBuffer db = raster.getDataBuffer();
+        // Translate raster coordinates into sample model coordinates
+        int tx = -raster.getSampleModelTranslateX();
+        int ty = -raster.getSampleModelTranslateY();
+        if (db.getNumBanks() == 1 && cm.getColorSpace().isCS_sRGB()) {
+            if (db instanceof DataBufferInt && sm instanceof SinglePixelPackedSampleModel && isStandardDirect(cm)) {
+                // One int per pixel, already in ARGB or RGB order
+                int[] data = ((DataBufferInt) db).getData();
+                int offset = db.getOffset();
+                int stride = ((SinglePixelPackedSampleModel) sm).getScanlineStride();
+                // Without an alpha channel, the top byte is unused and every pixel is opaque
+                int mask = cm.hasAlpha() ? 0xFFFFFFFF : 0xFFFFFF;
+                int alpha = cm.hasAlpha() ? 0 : 0xFF000000;
+                return (x, y, length, argb) -> {
+                    int p = offset + (y + ty) * stride + x + tx;
+                    for (int k = 0; k < length; k++) {
+                        argb[k] = data[p + k] & mask | alpha;
+                    }
+                };
+            }
+            if (db instanceof DataBufferByte && sm instanceof ComponentSampleModel) {
+                byte[] data = ((DataBufferByte) db).getData();
+                ComponentSampleModel csm = (ComponentSampleModel) sm;
+                int offset = db.getOffset();
+                int stride = csm.getScanlineStride();
+                int pixelStride = csm.getPixelStride();
+                int[] bandOffsets = csm.getBandOffsets();
+                if (cm instanceof IndexColorModel && bandOffsets.length == 1) {
+                    // One byte per pixel, which is an index into the palette
+                    int[] palette = new int[256];
+                    ((IndexColorModel) cm).getRGBs(palette);
+                    int bandOffset = bandOffsets[0];
+                    return (x, y, length, argb) -> {
+                        int p = offset + (y + ty) * stride + (x + tx) * pixelStride + bandOffset;
+                        for (int k = 0; k < length; k++, p += pixelStride) {
+                            argb[k] = palette[data[p] & 0xFF];
+                        }
+                    };
+                }
+                if (cm instanceof ComponentColorModel && is8Bit(cm) && (bandOffsets.length == 3 || bandOffsets.length == 4)) {
+                    // One byte per component. The bands are red, green, blue, and maybe alpha.
+                    int r = bandOffsets[0], g = bandOffsets[1], b = bandOffsets[2];
+                    boolean hasAlpha = bandOffsets.length == 4;
+                    int a = hasAlpha ? bandOffsets[3] : 0;
+                    return (x, y, length, argb) -> {
+                        int p = offset + (y + ty) * stride + (x + tx) * pixelStride;
+                        for (int k = 0; k < length; k++, p += pixelStride) {
+                            int alpha = hasAlpha ? data[p + a] & 0xFF : 0xFF;
+                            argb[k] = alpha << 24 | (data[p + r] & 0xFF) << 16 | (data[p + g] & 0xFF) << 8 | (data[p + b] & 0xFF);
+                        }
+                    };
+                }
+            }
+        }
+        // Any other format goes through the color model, but still a whole run at a time
+        return (x, y, length, argb) -> image.getRGB(x, y, length, 1, argb, 0, length);
+    }
+
+    /**
+     * Checks if a color model packs pixels as 0xAARRGGBB or 0x00RRGGBB.
+     */
+    private static boolean isStandardDirect(ColorModel cm) {
+        if (!(cm instanceof DirectColorModel)) return false;
+        DirectColorModel dcm = (DirectColorModel) cm;
+        return dcm.getRedMask() == 0xFF0000 && dcm.getGreenMask() == 0xFF00 && dcm.getBlueMask() == 0xFF &&
+                (dcm.getAlphaMask() == 0xFF000000 || dcm.getAlphaMask() == 0);
+    }
+
+    private static boolean is8Bit(ColorModel cm) {
+        for (int bits : cm.getComponentSize()) {
+            if (bits != 8) return false;
+        }
+        return true;
+    }
+}
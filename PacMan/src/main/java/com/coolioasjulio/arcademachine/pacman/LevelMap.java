@@ -4,51 +4,84 @@ import com.coolioasjulio.arcademachine.pacman.engine.BoxCollider;
 import com.coolioasjulio.arcademachine.pacman.engine.Coord;
 
 import java.awt.image.BufferedImage;
-import java.awt.Color;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Path;
 
 public class LevelMap {
     /**
      * Load a LevelMap object from an image. Black pixels are walls, white are passages, red is the spawn point, and green are the powerups.
-     * Pellets are placed at all tiles without a spawn point or powerup.
+     * Pellets are placed at all tiles without a spawn point or powerup. Colors have to be fully opaque to count.
+     * If there are several spawn points, the last one in row-major order is used. The powerups are in row-major order.
+     * Large images are read in parallel.
      *
      * @param image The image to load the level map from.
      * @return The LevelMap object loaded from the image.
      */
     public static LevelMap loadFromImg(BufferedImage image) {
-        boolean[][] map = new boolean[image.getHeight()][image.getWidth()];
-        int spawnX = -1, spawnY = -1;
-        List<Coord> powerups = new ArrayList<>();
-        for (int row = 0; row < map.length; row++) {
-            for (int col = 0; col < map[row].length; col++) {
-                int rgb = image.getRGB(col, row);
-                map[row][col] = rgb == Color.BLACK.getRGB();
-                if (rgb == Color.RED.getRGB()) {
-                    spawnX = col;
-                    spawnY = row;
-                } else if (rgb == Color.GREEN.getRGB()) {
-                    powerups.add(new Coord(col, row));
-                }
-            }
-        }
-        if (spawnX == -1) {
-            throw new IllegalArgumentException("The supplied image doesn't have a spawn point! The spawn point must be a pixel with values (255,0,0)");
-        }
-        return new LevelMap(map, spawnX, spawnY, powerups.toArray(new Coord[0]));
+        return LevelImageReader.read(image);
+    }
+
+    /**
+     * Load a level from a compiled level file. The file is memory mapped, and if it has a path table, the table is used
+     * straight from the file instead of being built.
+     *
+     * @param path The level file, written by {@link #saveToFile(Path)} or {@link LevelCompiler}.
+     * @return The LevelMap object loaded from the file.
+     * @throws IOException If the file couldn't be read.
+     */
+    public static LevelMap loadFromFile(Path path) throws IOException {
+        return LevelFile.map(path);
     }
 
-    private boolean[][] walls;
+    private final int width, height;
+    /**
+     * The walls of the level, packed into a bitset. The bit for a tile is at index y * width + x.
+     */
+    private final long[] walls;
     private int spawnX, spawnY;
     private Coord[] powerups;
+    private PathTable pathTable;
+    private volatile boolean pathTableBuilt = false;
+    private volatile JunctionGraph junctionGraph;
 
     public LevelMap(boolean[][] walls, int spawnX, int spawnY, Coord... powerups) {
-        int width = walls[0].length;
+        width = walls[0].length;
+        height = walls.length;
         for (boolean[] row : walls) {
             if (row.length != width) {
                 throw new IllegalArgumentException("Cannot use jagged array!");
             }
         }
+        this.walls = new long[(width * height + 63) / 64];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (walls[y][x]) {
+                    int i = y * width + x;
+                    this.walls[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+        this.spawnX = spawnX;
+        this.spawnY = spawnY;
+        this.powerups = powerups;
+    }
+
+    /**
+     * Create a level from walls that are already packed into a bitset.
+     *
+     * @param width    The width in tiles.
+     * @param height   The height in tiles.
+     * @param walls    The walls. The bit for a tile is at index y * width + x. This array is used directly, not copied.
+     * @param spawnX   The x coordinate of the spawn point.
+     * @param spawnY   The y coordinate of the spawn point.
+     * @param powerups The powerup locations.
+     */
+    LevelMap(int width, int height, long[] walls, int spawnX, int spawnY, Coord... powerups) {
+        if (walls.length != (width * height + 63) / 64) {
+            throw new IllegalArgumentException("The walls don't match the size of the level!");
+        }
+        this.width = width;
+        this.height = height;
         this.walls = walls;
         this.spawnX = spawnX;
         this.spawnY = spawnY;
@@ -61,7 +94,7 @@ public class LevelMap {
      * @return The width in tiles.
      */
     public int getWidth() {
-        return walls[0].length;
+        return width;
     }
 
     /**
@@ -70,7 +103,7 @@ public class LevelMap {
      * @return The height in tiles.
      */
     public int getHeight() {
-        return walls.length;
+        return height;
     }
 
     /**
@@ -81,7 +114,8 @@ public class LevelMap {
      * @return True if the tile is occupied by a wall, false otherwise.
      */
     public boolean isWall(int x, int y) {
-        return walls[y][x];
+        int i = y * width + x;
+        return (walls[i >>> 6] & (1L << i)) != 0;
     }
 
     /**
@@ -92,7 +126,7 @@ public class LevelMap {
      * @return True if there is no wall and the supplied coordinate is an open passageway.
      */
     public boolean isOpen(int x, int y) {
-        return Utils.inRange(x, 0, getWidth()) && Utils.inRange(y, 0, getHeight()) && !isWall(x, y);
+        return Utils.inRange(x, 0, width) && Utils.inRange(y, 0, height) && !isWall(x, y);
     }
 
     /**
@@ -130,14 +164,110 @@ public class LevelMap {
      * @return True if the collider collides any wall. False otherwise.
      */
     public boolean collides(BoxCollider collider, int size) {
-        for (int row = 0; row < walls.length; row++) {
-            for (int col = 0; col < walls[row].length; col++) {
-                // Create a size x size collider to represent the wall block, and check against the collider
-                if (walls[row][col] && new BoxCollider(col * size, row * size, size, size).intersects(collider)) {
+        return collides(collider.getX(), collider.getY(), collider.getWidth(), collider.getHeight(), size);
+    }
+
+    /**
+     * Check if the supplied box collides any of the walls in the level. Only the tiles that the box overlaps are checked.
+     *
+     * @param x      The x coordinate of the top left corner of the box, in pixels.
+     * @param y      The y coordinate of the top left corner of the box, in pixels.
+     * @param width  The width of the box, in pixels.
+     * @param height The height of the box, in pixels.
+     * @param size   The side length of a tile, in pixels.
+     * @return True if the box collides any wall. False otherwise.
+     */
+    public boolean collides(int x, int y, int width, int height, int size) {
+        // Find the range of tiles the box overlaps, and clip it to the level
+        int minCol = Math.max(0, Math.floorDiv(x, size));
+        int maxCol = Math.min(this.width - 1, Math.floorDiv(Math.max(x, x + width - 1), size));
+        int minRow = Math.max(0, Math.floorDiv(y, size));
+        int maxRow = Math.min(this.height - 1, Math.floorDiv(Math.max(y, y + height - 1), size));
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                // Each wall block is a size x size box
+                if (isWall(col, row) && BoxCollider.intersects(col * size, row * size, size, size, x, y, width, height)) {
                     return true;
                 }
             }
         }
         return false;
     }
+
+    /**
+     * Save this level as a compiled level file, which loads much faster than an image. The path table is included if the
+     * level is small enough to have one.
+     *
+     * @param path The file to write to. It's replaced if it already exists.
+     * @throws IOException If the file couldn't be written.
+     */
+    public void saveToFile(Path path) throws IOException {
+        LevelFile.write(this, path, getPathTable());
+    }
+
+    /**
+     * Get the walls of the level.
+     *
+     * @return The wall bitset. The bit for a tile is at index y * width + x. This must not be modified.
+     */
+    long[] getWallWords() {
+        return walls;
+    }
+
+    /**
+     * Use a path table that was already built, instead of building one on the first call to {@link #getPathTable()}.
+     *
+     * @param pathTable The path table of this level.
+     */
+    synchronized void setPathTable(PathTable pathTable) {
+        this.pathTable = pathTable;
+        pathTableBuilt = true;
+    }
+
+    /**
+     * Get the precomputed path table of this level, building it on the first call.
+     *
+     * @return The path table, or null if this level is too large to have one.
+     */
+    PathTable getPathTable() {
+        if (!pathTableBuilt) {
+            synchronized (this) {
+                if (!pathTableBuilt) {
+                    pathTable = PathTable.build(this);
+                    pathTableBuilt = true;
+                }
+            }
+        }
+        return pathTable;
+    }
+
+    /**
+     * Get the junction graph of this level, building it on the first call.
+     *
+     * @return The junction graph of this level.
+     */
+    JunctionGraph getJunctionGraph() {
+        JunctionGraph graph = junctionGraph;
+        if (graph == null) {
+            synchronized (this) {
+                graph = junctionGraph;
+                if (graph == null) {
+                    junctionGraph = graph = new JunctionGraph(this);
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Checks if the supplied tile is a junction. Junctions are the open tiles that don't have exactly two open neighbors,
+     * which means they're the only tiles where there's a choice of which way to go.
+     *
+     * @param x X coordinate, in tiles. Positive is to the right.
+     * @param y Y coordinate, in tiles. Positive is down.
+     * @return True if the tile is a junction, false if it's a wall, a corridor, or out of bounds.
+     */
+    public boolean isJunction(int x, int y) {
+        return isOpen(x, y) && getJunctionGraph().getNode(y * getWidth() + x) != -1;
+    }
 }
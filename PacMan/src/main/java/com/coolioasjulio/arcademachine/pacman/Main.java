@@ -2,10 +2,13 @@ package com.coolioasjulio.arcademachine.pacman;
 
 import javax.imageio.ImageIO;
 import java.io.IOException;
+import java.nio.file.Paths;
 
 public class Main {
     public static void main(String[] args) throws IOException {
-        LevelMap map = LevelMap.loadFromImg(ImageIO.read(Main.class.getResourceAsStream("/pacmanlevel.png")));
+        // A compiled level file can be given instead of the built in level
+        LevelMap map = args.length > 0 ? LevelMap.loadFromFile(Paths.get(args[0])) :
+                LevelMap.loadFromImg(ImageIO.read(Main.class.getResourceAsStream("/pacmanlevel.png")));
         PacManGameGUI game = new PacManGameGUI(map, 30);
         game.playGame();
     }
@@ -0,0 +1,129 @@
+package com.coolioasjulio.arcademachine.pacman;
+
+import com.coolioasjulio.arcademachine.pacman.engine.AwtGraphicsAdapter;
+import com.coolioasjulio.arcademachine.pacman.engine.Drawer;
+import com.coolioasjulio.arcademachine.pacman.engine.RecordingDrawer;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferedImage;
+
+/**
+ * Off-screen images of the parts of a level that don't move. The walls are rendered once, and the items (pellets and
+ * powerups) are drawn on a copy of the walls. When an item is eaten, only its tile has to be restored from the walls.
+ * This way, a frame only has to blit one image before drawing the moving objects on top.
+ * <p>
+ * Both layers are drawn through a {@link RecordingDrawer}, so the walls are filled as a few big rectangles instead of one
+ * per tile, and the items drawn in one update share their color changes.
+ */
+class MazeLayer {
+    private final LevelMap levelMap;
+    private final int size;
+    private final BufferedImage walls;
+    private final BufferedImage items;
+    private final Graphics2D itemsGraphics;
+    private final Drawer itemsGraphicsDrawer;
+    private final RecordingDrawer itemsDrawer = new RecordingDrawer();
+
+    /**
+     * Render the walls of a level.
+     *
+     * @param levelMap  The level to render.
+     * @param size      The side length of a tile in pixels.
+     * @param bgColor   The color of open tiles.
+     * @param wallColor The color of walls.
+     */
+    MazeLayer(LevelMap levelMap, int size, Color bgColor, Color wallColor) {
+        this.levelMap = levelMap;
+        this.size = size;
+        int width = levelMap.getWidth() * size;
+        int height = levelMap.getHeight() * size;
+        walls = createImage(width, height);
+        RecordingDrawer d = new RecordingDrawer();
+        d.setColor(bgColor);
+        d.fillRect(0, 0, width, height);
+        d.setColor(wallColor);
+        for (int y = 0; y < levelMap.getHeight(); y++) {
+            for (int x = 0; x < levelMap.getWidth(); x++) {
+                if (levelMap.isWall(x, y)) {
+                    d.fillRect(x * size, y * size, size, size);
+                }
+            }
+        }
+        Graphics2D g = walls.createGraphics();
+        d.replay(new AwtGraphicsAdapter(g));
+        g.dispose();
+        items = createImage(width, height);
+        itemsGraphics = items.createGraphics();
+        itemsGraphicsDrawer = new AwtGraphicsAdapter(itemsGraphics);
+        clearItems();
+    }
+
+    /**
+     * Create an image in the same format as the screen, so blitting it doesn't need a conversion.
+     */
+    private static BufferedImage createImage(int width, int height) {
+        // Images have to be at least 1x1
+        width = Math.max(1, width);
+        height = Math.max(1, height);
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration()
+                .createCompatibleImage(width, height);
+    }
+
+    LevelMap getLevelMap() {
+        return levelMap;
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    /**
+     * Get the rendered level, including the walls and all the items that have been drawn.
+     *
+     * @return The image of the level.
+     */
+    BufferedImage getImage() {
+        return items;
+    }
+
+    /**
+     * Get a drawer that draws items onto the level image. Nothing shows up on the image until {@link #flushItems()} is
+     * called, so clear the tiles before drawing their items.
+     *
+     * @return The drawer for the items layer.
+     */
+    Drawer getItemsDrawer() {
+        return itemsDrawer;
+    }
+
+    /**
+     * Draw the items that were drawn with the items drawer onto the level image.
+     */
+    void flushItems() {
+        itemsDrawer.replay(itemsGraphicsDrawer);
+        itemsDrawer.reset();
+    }
+
+    /**
+     * Erase all the items, leaving only the walls.
+     */
+    void clearItems() {
+        itemsGraphics.drawImage(walls, 0, 0, null);
+    }
+
+    /**
+     * Erase any items drawn on a tile.
+     *
+     * @param x X coordinate, in tiles.
+     * @param y Y coordinate, in tiles.
+     */
+    void clearTile(int x, int y) {
+        int px = x * size, py = y * size;
+        itemsGraphics.drawImage(walls, px, py, px + size, py + size, px, py, px + size, py + size, null);
+    }
+}
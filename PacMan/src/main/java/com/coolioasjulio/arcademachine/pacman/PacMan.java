@@ -1,6 +1,5 @@
 package com.coolioasjulio.arcademachine.pacman;
 
-import com.coolioasjulio.arcademachine.launcher.gameutils.InputManager;
 import com.coolioasjulio.arcademachine.pacman.engine.BoxCollider;
 import com.coolioasjulio.arcademachine.pacman.engine.Coord;
 import com.coolioasjulio.arcademachine.pacman.engine.Drawer;
@@ -46,14 +45,15 @@ public class PacMan extends GameObject {
      * This handles moving the player and wrapping around the edges.
      *
      * @param levelMap The map of the active level.
+     * @param input    The source of the player input.
      * @param dt       The elapsed time in seconds since the last update.
      */
-    public void update(LevelMap levelMap, double dt) {
+    public void update(LevelMap levelMap, GameInput input, double dt) {
         Coord currTile = getTile();
         // Get the new direction to move in
-        updateDirection();
+        updateDirection(levelMap, input);
         // Move in the appropriate direction
-        Utils.moveGameObject(this, levelMap, direction, Utils.round(speed * dt), size);
+        Utils.moveGameObject(this, levelMap, direction, speed * dt, size);
         // If required, wrap around the map
         Utils.warpEdges(this, levelMap, size);
         if (!currTile.equals(getTile())) {
@@ -69,13 +69,13 @@ public class PacMan extends GameObject {
         return new Coord(getTileX(size), getTileY(size));
     }
 
-    private void updateDirection() {
+    private void updateDirection(LevelMap levelMap, GameInput input) {
         Direction newDir;
         // If a key was pressed in the last tick, we're changing directions
-        if (InputManager.keyPressed(KeyEvent.VK_UP)) newDir = Direction.NORTH;
-        else if (InputManager.keyPressed(KeyEvent.VK_RIGHT)) newDir = Direction.EAST;
-        else if (InputManager.keyPressed(KeyEvent.VK_DOWN)) newDir = Direction.SOUTH;
-        else if (InputManager.keyPressed(KeyEvent.VK_LEFT)) newDir = Direction.WEST;
+        if (input.keyPressed(KeyEvent.VK_UP)) newDir = Direction.NORTH;
+        else if (input.keyPressed(KeyEvent.VK_RIGHT)) newDir = Direction.EAST;
+        else if (input.keyPressed(KeyEvent.VK_DOWN)) newDir = Direction.SOUTH;
+        else if (input.keyPressed(KeyEvent.VK_LEFT)) newDir = Direction.WEST;
         else return;
 
         int threshold = 3 * size / 8; // the snap threshold is +-3/8 of the tile size
@@ -87,7 +87,7 @@ public class PacMan extends GameObject {
                 int dx = Utils.getDeltaX(newDir);
                 int dy = Utils.getDeltaY(newDir);
                 // If the tile in the new direction is open, snap to the middle
-                if (PacManGame.getInstance().getLevelMap().isOpen(getTileX(size) + dx, getTileY(size) + dy)) {
+                if (levelMap.isOpen(getTileX(size) + dx, getTileY(size) + dy)) {
                     Utils.snapGameObject(this, size, threshold);
                     direction = newDir;
                 }
@@ -98,10 +98,11 @@ public class PacMan extends GameObject {
     }
 
     /**
-     * This is the sprite of the pac man, which handles the rendering
+     * This is the sprite of the pac man, which handles the rendering.
+     * There are two images (mouth closed, mouth open) for each direction, and the draw index of direction d and image i is 2 * d + i.
      */
     private static class PacManSprite extends Sprite {
-        private int size;
+        private final int size;
         private final Color color;
         private final Color bgColor;
         private Supplier<Direction> directionSupplier;
@@ -117,10 +118,15 @@ public class PacMan extends GameObject {
             this.directionSupplier = directionSupplier;
         }
 
-        public void drawActiveImage(Drawer d) {
+        @Override
+        public int getDrawIndex() {
+            return 2 * directionSupplier.get().ordinal() + getActiveImageIndex();
+        }
+
+        public void drawImage(Drawer d, int index, int drawX, int drawY) {
             // Draw the circle
             d.setColor(color);
-            d.fillOval(getX(), getY(), size, size);
+            d.fillOval(drawX, drawY, size, size);
             // Then draw the mouth. Depending on the direction of travel, the mouth should be rotated
             d.setColor(bgColor);
             // These are the x and y coordinates if we're moving north
@@ -128,7 +134,7 @@ public class PacMan extends GameObject {
             int[] y = new int[]{0, 3 * size / 5, 0};
             int[] temp = y;
             // Depending on which direction we're actually moving, rotate the coordinates
-            switch (directionSupplier.get()) {
+            switch (Direction.values()[index / 2]) {
                 case NORTH:
                     break;
 
@@ -146,12 +152,12 @@ public class PacMan extends GameObject {
                     y = Arrays.stream(y).map(i -> size - i).toArray();
                     break;
             }
-            x = Arrays.stream(x).map(i -> i + getX()).toArray();
-            y = Arrays.stream(y).map(i -> i + getY()).toArray();
+            x = Arrays.stream(x).map(i -> i + drawX).toArray();
+            y = Arrays.stream(y).map(i -> i + drawY).toArray();
             // Render the mouth
             // Since we're being animated, we have two images (mouth open, mouth closed)
-            // Only draw the mouth if the mouth is open (index is 1)
-            if (getActiveImageIndex() != 0) d.fillPolygon(x, y);
+            // Only draw the mouth if the mouth is open (image is 1)
+            if (index % 2 != 0) d.fillPolygon(x, y);
         }
 
         public int numImages() {
@@ -1,30 +1,24 @@
 package com.coolioasjulio.arcademachine.pacman;
 
-import com.coolioasjulio.arcademachine.launcher.gameutils.InputManager;
-import com.coolioasjulio.arcademachine.pacman.behaviors.GhostAmbushBehavior;
-import com.coolioasjulio.arcademachine.pacman.behaviors.GhostChaseBehavior;
-import com.coolioasjulio.arcademachine.pacman.behaviors.GhostObliviousBehavior;
-import com.coolioasjulio.arcademachine.pacman.behaviors.GhostPinchBehavior;
+import com.coolioasjulio.arcademachine.pacman.engine.BoxCollider;
+import com.coolioasjulio.arcademachine.pacman.engine.Camera;
+import com.coolioasjulio.arcademachine.pacman.engine.CollisionWorld;
 import com.coolioasjulio.arcademachine.pacman.engine.Coord;
 import com.coolioasjulio.arcademachine.pacman.engine.Drawer;
 import com.coolioasjulio.arcademachine.pacman.engine.GameObject;
+import com.coolioasjulio.arcademachine.pacman.engine.Sprite;
 import com.coolioasjulio.arcademachine.pacman.engine.Time;
+import com.coolioasjulio.arcademachine.pacman.engine.TripleBuffer;
 
 import java.awt.Color;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 public abstract class PacManGame {
 
-    private static PacManGame instance;
-
-    public static PacManGame getInstance() {
-        return instance;
-    }
-
     protected static final Color[] GHOST_COLORS = new Color[]{Color.RED, Color.CYAN, Color.GREEN, Color.PINK};
     protected static final Color GHOST_FLEE_COLOR = Color.BLUE;
     protected static final Color PACMAN_COLOR = Color.YELLOW;
@@ -32,30 +26,56 @@ public abstract class PacManGame {
     protected static final Color WALL_COLOR = Color.BLUE;
     protected static final Color PELLET_COLOR = Color.WHITE;
 
-    private static final long GHOST_SPAWN_INTERVAL = 10000; // ms
     private static final double DEF_GHOST_SPEED = 3.5;
     private static final double DEF_PACMAN_SPEED = 4;
     private static final int START_LIVES = 3;
-    private static final long POWERUP_TIME = 8000;
+    private static final int PACMAN_LAYER = 1;
+    private static final int GHOST_LAYER = 1 << 1;
+    // Levels bigger than this many pixels are drawn tile by tile instead of being cached in an image
+    private static final long MAX_MAZE_LAYER_PIXELS = 1 << 22;
+    protected static final long TICK_MILLIS = 50;
+    private static final double POWERUP_TIME = 8; // seconds
+    // Below this many ghosts deciding in the same tick, handing the work to other threads costs more than it saves
+    private static final int PARALLEL_THINK_THRESHOLD = 4;
 
     protected LevelMap levelMap;
     protected Ghost[] ghosts;
     protected PacMan pacMan;
+    private FlowField pacManFlowField;
     protected int size;
     private int score;
     protected int lives;
-    protected List<GameObject> pellets;
-    protected List<GameObject> powerups;
-    private long powerupTimeoutTime;
-    private long nextGhostSpawnTime;
+    protected TileSet pellets;
+    protected TileSet powerups;
+    protected GameInput input = GameInput.INPUT_MANAGER;
+    private GhostConfig ghostConfig = GhostConfig.CLASSIC;
+    // Timers are in game time, so they stop while the game is paused
+    private double powerupTimeoutTime;
+    private double nextGhostSpawnTime;
     private boolean powerupActive = false;
+    // Where the items have changed, so render snapshots only have to copy the changes
+    private final TileChangeLog itemChanges = new TileChangeLog();
+    // Frames are drawn from snapshots, so the game never has to wait for the drawing thread or the other way around
+    private final TripleBuffer<RenderSnapshot> snapshots = new TripleBuffer<>(RenderSnapshot::new);
+    private long frame;
+    // Only used by the drawing thread. The maze layer has the items of drawnPellets and drawnPowerups drawn on it.
+    private MazeLayer mazeLayer;
+    private long[] drawnPellets, drawnPowerups;
+    // Counts up whenever everything on the screen has to be redrawn
+    private int redrawCount;
+    private CollisionWorld collisionWorld;
+    // The ghosts that are touching pac man, found once per tick
+    private final List<Ghost> touchingGhosts = new ArrayList<>();
+    private final Camera camera;
+    // Every game keeps its own time, so several games can run at once
+    private final Time time = new Time();
 
     public PacManGame(LevelMap levelMap, int size) {
-        if (instance == null) instance = this;
         this.levelMap = levelMap;
         this.size = size;
-        pellets = new ArrayList<>();
-        powerups = new ArrayList<>();
+        pellets = new TileSet(levelMap.getWidth(), levelMap.getHeight());
+        powerups = new TileSet(levelMap.getWidth(), levelMap.getHeight());
+        camera = new Camera(levelMap.getWidth() * size, levelMap.getHeight() * size);
     }
 
     /**
@@ -79,129 +99,396 @@ public abstract class PacManGame {
     protected abstract void onLevelComplete();
 
     /**
-     * Draw the level and all the game objects. This method does not handle reporting wins, losses, or deaths.
-     * Additionally, this method does not display the score or lives anywhere.
+     * Called when a ghost is spawned. Does nothing by default.
+     *
+     * @param ghost The ghost that was spawned.
+     */
+    protected void onGhostSpawned(Ghost ghost) {
+    }
+
+    /**
+     * Draw the latest frame of the game. See {@link #draw(Drawer, RenderSnapshot)}.
+     * This doesn't touch the game itself, so it can be called from any one drawing thread while the game keeps running.
      *
      * @param d The Drawer object to use to render the frame. Specific implementation is platform-specific.
      */
     protected void draw(Drawer d) {
+        draw(d, acquireSnapshot());
+    }
+
+    /**
+     * Get the latest frame that the game has published. Only one thread may draw the game, and the snapshot stays the same
+     * until that thread acquires another one.
+     *
+     * @return The most recent snapshot of the game.
+     */
+    protected RenderSnapshot acquireSnapshot() {
+        return snapshots.acquire();
+    }
+
+    /**
+     * Draw the part of the level and the game objects that the camera saw in a snapshot. The top left corner of the view
+     * is drawn at the origin. Nothing is drawn if the game hasn't published a frame yet.
+     * This method does not handle reporting wins, losses, or deaths.
+     * Additionally, this method does not display the score or lives anywhere.
+     *
+     * @param d        The Drawer object to use to render the frame. Specific implementation is platform-specific.
+     * @param snapshot The frame to draw.
+     */
+    protected void draw(Drawer d, RenderSnapshot snapshot) {
+        draw(d, snapshot, 1);
+    }
+
+    /**
+     * Draw a snapshot partway through its tick. The view and the sprites are drawn in between where they were at the start
+     * of the tick and where they are at the end. See {@link RenderSnapshot#getInterpolation(long)}.
+     *
+     * @param d        The Drawer object to use to render the frame. Specific implementation is platform-specific.
+     * @param snapshot The frame to draw.
+     * @param alpha    The fraction of the tick, where 0 is the start and 1 is the end.
+     */
+    protected void draw(Drawer d, RenderSnapshot snapshot, double alpha) {
+        if (snapshot.getFrame() == 0) return;
+        int viewX = snapshot.getViewX(alpha), viewY = snapshot.getViewY(alpha);
+        int size = snapshot.getSize();
+        LevelMap levelMap = snapshot.getLevelMap();
+        d.translate(-viewX, -viewY);
+
+        if ((long) levelMap.getWidth() * levelMap.getHeight() * size * size <= MAX_MAZE_LAYER_PIXELS) {
+            // The walls and items are cached in one image, so only the moving objects are drawn every time.
+            // The parts of the image that are off the screen are clipped.
+            d.drawImage(updateMazeLayer(snapshot), 0, 0);
+        } else {
+            drawTiles(d, snapshot, viewX, viewY);
+        }
+
+        // Only the sprites in view were put in the snapshot
+        for (int i = 0; i < snapshot.getNumSprites(); i++) {
+            snapshot.getSprite(i).drawImage(d, snapshot.getSpriteImage(i), snapshot.getSpriteX(i, alpha), snapshot.getSpriteY(i, alpha));
+        }
+        d.translate(viewX, viewY);
+    }
+
+    /**
+     * Draw the walls and items of the tiles in view, for levels that are too big to cache.
+     *
+     * @param d        The drawer to render with.
+     * @param snapshot The frame to draw.
+     * @param x        The x coordinate of the view in pixels.
+     * @param y        The y coordinate of the view in pixels.
+     */
+    private void drawTiles(Drawer d, RenderSnapshot snapshot, int x, int y) {
+        LevelMap levelMap = snapshot.getLevelMap();
+        int size = snapshot.getSize();
+        int width = snapshot.getViewWidth(), height = snapshot.getViewHeight();
+        int minCol = Math.max(0, Math.floorDiv(x, size));
+        int maxCol = Math.min(levelMap.getWidth() - 1, Math.floorDiv(x + width - 1, size));
+        int minRow = Math.max(0, Math.floorDiv(y, size));
+        int maxRow = Math.min(levelMap.getHeight() - 1, Math.floorDiv(y + height - 1, size));
         d.setColor(BG_COLOR);
-        d.fillRect(0, 0, levelMap.getWidth() * size, levelMap.getHeight() * size);
+        d.fillRect(x, y, width, height);
         d.setColor(WALL_COLOR);
-        for (int y = 0; y < levelMap.getHeight(); y++) {
-            for (int x = 0; x < levelMap.getWidth(); x++) {
-                if (levelMap.isWall(x, y)) {
-                    d.fillRect(x * size, y * size, size, size);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                if (levelMap.isWall(col, row)) {
+                    d.fillRect(col * size, row * size, size, size);
                 }
             }
         }
-
-        for (GameObject p : pellets) {
-            p.draw(d);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                drawItems(d, snapshot, col, row);
+            }
         }
+    }
 
-        for (GameObject p : powerups) {
-            p.draw(d);
+    /**
+     * Bring the cached image of the walls and items up to date with a snapshot. The image is only rebuilt if the tile size
+     * or the level changed, otherwise only the tiles whose items differ from what was drawn last time are redrawn.
+     *
+     * @param snapshot The frame to draw.
+     * @return The image of the walls and items.
+     */
+    private BufferedImage updateMazeLayer(RenderSnapshot snapshot) {
+        int numWords = snapshot.getNumItemWords();
+        boolean rebuilt = false;
+        if (mazeLayer == null || mazeLayer.getSize() != snapshot.getSize() || mazeLayer.getLevelMap() != snapshot.getLevelMap()) {
+            mazeLayer = new MazeLayer(snapshot.getLevelMap(), snapshot.getSize(), BG_COLOR, WALL_COLOR);
+            drawnPellets = new long[numWords];
+            drawnPowerups = new long[numWords];
+            rebuilt = true;
+        }
+        int width = snapshot.getLevelMap().getWidth();
+        for (int word = 0; word < numWords; word++) {
+            long pellets = snapshot.getPelletWord(word), powerups = snapshot.getPowerupWord(word);
+            long changed = (pellets ^ drawnPellets[word]) | (powerups ^ drawnPowerups[word]);
+            for (; changed != 0; changed &= changed - 1) {
+                int tile = word * 64 + Long.numberOfTrailingZeros(changed);
+                // A new layer has nothing to clear
+                if (!rebuilt) {
+                    mazeLayer.clearTile(tile % width, tile / width);
+                }
+                drawItems(mazeLayer.getItemsDrawer(), snapshot, tile % width, tile / width);
+            }
+            drawnPellets[word] = pellets;
+            drawnPowerups[word] = powerups;
         }
+        mazeLayer.flushItems();
+        return mazeLayer.getImage();
+    }
 
-        pacMan.draw(d);
+    /**
+     * Draw the items that are left on a tile.
+     */
+    private void drawItems(Drawer d, RenderSnapshot snapshot, int x, int y) {
+        int size = snapshot.getSize();
+        d.setColor(PELLET_COLOR);
+        if (snapshot.hasPellet(x, y)) {
+            d.fillRect(x * size + pelletOffset(size), y * size + pelletOffset(size), pelletSize(size), pelletSize(size));
+        }
+        if (snapshot.hasPowerup(x, y)) {
+            d.fillOval(x * size + powerupOffset(size), y * size + powerupOffset(size), powerupSize(size), powerupSize(size));
+        }
+    }
 
+    /**
+     * Fill a snapshot with the current frame and hand it to the drawing thread. Only the sprites that the camera sees at some
+     * point during the tick are included.
+     */
+    private void publishSnapshot() {
+        RenderSnapshot snapshot = snapshots.getBackBuffer();
+        snapshot.begin(++frame, TICK_MILLIS * 1000000, redrawCount, levelMap, size, score, lives);
+        // The camera follows pac man, so it started the tick where it would have been for pac man's old position
+        Coord prevView = camera.getPositionFor(pacMan.getPrevX() + size / 2, pacMan.getPrevY() + size / 2);
+        Coord view = camera.getPosition();
+        int viewWidth = camera.getViewportWidth();
+        int viewHeight = camera.getViewportHeight();
+        snapshot.setView(prevView.x, prevView.y, view.x, view.y, viewWidth, viewHeight);
+        snapshot.syncItems(pellets, powerups, itemChanges);
+        // Cull against everything the view covers during the tick
+        int minX = Math.min(prevView.x, view.x), minY = Math.min(prevView.y, view.y);
+        int width = viewWidth + Math.abs(view.x - prevView.x), height = viewHeight + Math.abs(view.y - prevView.y);
+        addSprite(snapshot, pacMan, minX, minY, width, height);
         for (Ghost ghost : ghosts) {
             if (ghost != null) {
-                ghost.draw(d);
+                addSprite(snapshot, ghost, minX, minY, width, height);
             }
         }
+        snapshot.end();
+        snapshots.publish();
+    }
+
+    /**
+     * Add the active sprite of an object to a snapshot, if the object is in a region at the start or end of the tick.
+     */
+    private void addSprite(RenderSnapshot snapshot, GameObject obj, int x, int y, int width, int height) {
+        Sprite sprite = obj.getActiveSprite();
+        if (sprite == null) return;
+        int prevX = obj.getPrevX(), prevY = obj.getPrevY();
+        if (BoxCollider.intersects(x, y, width, height, obj.getX(), obj.getY(), size, size) ||
+                BoxCollider.intersects(x, y, width, height, prevX, prevY, size, size)) {
+            // The sprite may be offset from its object
+            int dx = sprite.getX() - obj.getX(), dy = sprite.getY() - obj.getY();
+            snapshot.addSprite(sprite, prevX + dx, prevY + dy, sprite.getX(), sprite.getY(), sprite.getDrawIndex());
+        }
     }
 
     private void spawnPacMan() {
         pacMan.setLocalPosition(levelMap.spawnX() * size, levelMap.spawnY() * size);
+        pacMan.savePosition();
         pacMan.setDirection(Direction.EAST);
     }
 
     public void setSize(int size) {
         this.size = size;
+        camera.setWorldSize(levelMap.getWidth() * size, levelMap.getHeight() * size);
+        redrawCount++;
+    }
+
+    /**
+     * Get the camera, which follows pac man around the level.
+     *
+     * @return The camera that the level is drawn with.
+     */
+    public Camera getCamera() {
+        return camera;
+    }
+
+    /**
+     * Get the game clock. Pausing or scaling it affects only this game.
+     *
+     * @return The clock that the game runs on.
+     */
+    public Time getTime() {
+        return time;
     }
 
     public int getScore() {
         return score;
     }
 
+    public int getLives() {
+        return lives;
+    }
+
+    /**
+     * Set where the player's input comes from. This should be called before the game is started.
+     *
+     * @param input The input source to use.
+     */
+    public void setInput(GameInput input) {
+        if (input == null) {
+            throw new IllegalArgumentException("Input cannot be null!");
+        }
+        this.input = input;
+    }
+
+    public GameInput getInput() {
+        return input;
+    }
+
+    /**
+     * Set how many ghosts there are, when they spawn, and how they behave. This should be called before the game is started.
+     *
+     * @param ghostConfig The ghost configuration to use.
+     */
+    public void setGhostConfig(GhostConfig ghostConfig) {
+        if (ghostConfig == null) {
+            throw new IllegalArgumentException("Ghost config cannot be null!");
+        }
+        this.ghostConfig = ghostConfig;
+    }
+
+    public GhostConfig getGhostConfig() {
+        return ghostConfig;
+    }
+
+    /**
+     * Get the number of ghosts that are alive.
+     *
+     * @return The number of ghosts in the level right now.
+     */
+    public int getNumGhosts() {
+        int count = 0;
+        for (Ghost ghost : ghosts) {
+            if (ghost != null) count++;
+        }
+        return count;
+    }
+
     /**
      * Called at the start of a level. Initializes everything.
      */
     private void setUpLevel() {
         pacMan = new PacMan(levelMap.spawnX() * size, levelMap.spawnY() * size, size, PACMAN_COLOR, Color.BLACK);
         pacMan.setSpeed(Utils.round(DEF_PACMAN_SPEED * size));
-        ghosts = new Ghost[4];
+        ghosts = new Ghost[ghostConfig.getMaxGhosts()];
+        collisionWorld = new CollisionWorld(size);
+        // Pac man is always added first, so the other object is the ghost
+        collisionWorld.addContactListener((a, b) -> touchingGhosts.add((Ghost) b));
         resetPellets();
         resetPowerups();
         lives = START_LIVES;
-        Time.start();
-        nextGhostSpawnTime = System.currentTimeMillis() + GHOST_SPAWN_INTERVAL;
+        time.start();
+        nextGhostSpawnTime = time.time() + ghostConfig.getSpawnInterval();
     }
 
     /**
      * Start the game. This method blocks until the game is finished.
      */
     protected void playGame() {
-        // Initialize the input manager and the level
-        InputManager.enable();
+        // Initialize the input and the level
+        input.enable();
         setUpLevel();
-        // Run until interrupted
+        // Run until interrupted or the game is over
         while (!Thread.interrupted()) {
-            double dt = Time.deltaTime();
-            InputManager.fetchInputs(); // Get the recent inputs from the last timestep
-
-            // If the powerup is active and has expired, disable it
-            if (powerupActive && System.currentTimeMillis() >= powerupTimeoutTime) {
-                stopPowerup();
-            }
-
-            long start = System.currentTimeMillis();
-            // Spawn ghosts if required
-            spawnGhostIfNecessary();
-            // Update all ghosts
-            Arrays.stream(ghosts).filter(Objects::nonNull).forEach(g -> g.update(levelMap, dt));
-            // Update the player
-            pacMan.update(levelMap, dt);
-            // Handle the player eating things
-            eatPellets();
-            eatPowerups();
-            eatGhosts();
-            // Update the UI
-            update();
-
-            // Handle the player losing a life
-            if (playerShouldDie()) {
-                onDeath();
-                lives--;
-                Time.start();
-                ghosts = new Ghost[4];
-                spawnPacMan();
-                nextGhostSpawnTime = System.currentTimeMillis() + GHOST_SPAWN_INTERVAL;
-                // If the player has lost all lives, handle losing the game
-                if (lives <= 0) {
-                    onLose();
-                    break;
-                }
-                continue;
-            }
-
-            // If there are no more pellets, the player has won.
-            if (pellets.isEmpty()) {
-                onLevelComplete();
-                setUpLevel();
+            long start = System.nanoTime();
+            if (!step()) {
                 break;
             }
-
-            // Update rate is 20Hz, so there should be 50ms between the start of each update
             try {
-                Thread.sleep(Math.max(0, 50 - (System.currentTimeMillis() - start)));
+                waitForNextTick(start);
             } catch (InterruptedException e) {
                 break;
             }
-            Time.update();
+            time.update();
+        }
+    }
+
+    /**
+     * Advance the game by one tick. This handles input, movement, eating, dying, and winning.
+     *
+     * @return True if the game should keep going, false if the game is over.
+     */
+    protected boolean step() {
+        double dt = time.deltaTime();
+        input.fetchInputs(); // Get the recent inputs from the last timestep
+        // Remember where everything starts the tick, so it can be drawn moving smoothly
+        pacMan.savePosition();
+        Arrays.stream(ghosts).filter(Objects::nonNull).forEach(GameObject::savePosition);
+
+        // If the powerup is active and has expired, disable it
+        if (powerupActive && time.time() >= powerupTimeoutTime) {
+            stopPowerup();
+        }
+
+        // Spawn ghosts if required
+        spawnGhostIfNecessary();
+        // Update the distances to pac man, which are shared by all the ghosts
+        updatePacManFlowField();
+        // Update all ghosts
+        updateGhosts(dt);
+        // Update the player
+        pacMan.update(levelMap, input, dt);
+        findContacts();
+        // Handle the player eating things
+        eatPellets();
+        eatPowerups();
+        eatGhosts();
+        // Animate everything from the game clock
+        double now = time.time();
+        pacMan.animate(now);
+        Arrays.stream(ghosts).filter(Objects::nonNull).forEach(g -> g.animate(now));
+        camera.follow(pacMan.getX() + size / 2, pacMan.getY() + size / 2);
+        publishSnapshot();
+        // Update the UI
+        update();
+
+        // Handle the player losing a life
+        if (playerShouldDie()) {
+            // The game is frozen while the death is handled
+            time.pause();
+            onDeath();
+            time.resume();
+            lives--;
+            Arrays.fill(ghosts, null);
+            spawnPacMan();
+            nextGhostSpawnTime = time.time() + ghostConfig.getSpawnInterval();
+            // If the player has lost all lives, handle losing the game
+            if (lives <= 0) {
+                onLose();
+                return false;
+            }
+            return true;
+        }
+
+        // If there are no more pellets, the player has won.
+        if (pellets.isEmpty()) {
+            onLevelComplete();
+            setUpLevel();
+            return false;
         }
+        return true;
+    }
+
+    /**
+     * Wait until it's time for the next tick. The update rate is 20Hz, so there should be 50ms between the start of each update.
+     *
+     * @param tickStart The value of {@link System#nanoTime()} at the start of the current tick.
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    protected void waitForNextTick(long tickStart) throws InterruptedException {
+        Thread.sleep(Math.max(0, TICK_MILLIS - (System.nanoTime() - tickStart) / 1000000));
     }
 
     /**
@@ -210,20 +497,19 @@ public abstract class PacManGame {
     private void resetPowerups() {
         powerups.clear();
         for (Coord c : levelMap.getPowerupsCoords()) {
-            PowerupSprite sprite = new PowerupSprite(size, PELLET_COLOR);
-            powerups.add(new GameObject(c.x * size, c.y * size, sprite.getBoundingCollider(), sprite));
+            powerups.add(c.x, c.y);
         }
+        itemChanges.reset();
+        redrawCount++;
     }
 
     /**
      * Handles pac man eating the powerups. Does nothing if none are eaten.
      */
     private void eatPowerups() {
-        List<GameObject> eaten = powerups.stream().filter(c -> c.intersects(pacMan)).collect(Collectors.toList());
-        powerups.removeAll(eaten);
-        if (!eaten.isEmpty()) {
+        if (eatItems(powerups, powerupOffset(size), powerupSize(size)) > 0) {
             powerupActive = true;
-            powerupTimeoutTime = System.currentTimeMillis() + POWERUP_TIME;
+            powerupTimeoutTime = time.time() + POWERUP_TIME;
             Arrays.stream(ghosts).filter(Objects::nonNull).forEach(g -> {
                 g.setFleeing(true);
                 g.setSpeed(g.getSpeed() * 2 / 3);
@@ -247,8 +533,7 @@ public abstract class PacManGame {
      */
     private void eatGhosts() {
         if (!powerupActive) return;
-        List<Ghost> eaten = Arrays.stream(ghosts).filter(Objects::nonNull).filter(g -> g.intersects(pacMan)).collect(Collectors.toList());
-        for (Ghost g : eaten) {
+        for (Ghost g : touchingGhosts) {
             score += 10;
             for (int i = 0; i < ghosts.length; i++) {
                 if (ghosts[i] == g) {
@@ -256,6 +541,22 @@ public abstract class PacManGame {
                 }
             }
         }
+        touchingGhosts.clear();
+    }
+
+    /**
+     * Find the ghosts that are touching pac man. This has to be called after everything has moved.
+     */
+    private void findContacts() {
+        touchingGhosts.clear();
+        collisionWorld.clear();
+        collisionWorld.add(pacMan, PACMAN_LAYER, GHOST_LAYER);
+        for (Ghost ghost : ghosts) {
+            if (ghost != null) {
+                collisionWorld.add(ghost, GHOST_LAYER, PACMAN_LAYER);
+            }
+        }
+        collisionWorld.step();
     }
 
     /**
@@ -266,20 +567,74 @@ public abstract class PacManGame {
         for (int y = 0; y < levelMap.getHeight(); y++) {
             for (int x = 0; x < levelMap.getWidth(); x++) {
                 if (!levelMap.isWall(x, y)) {
-                    PelletSprite sprite = new PelletSprite(size, PELLET_COLOR);
-                    pellets.add(new GameObject(x * size, y * size, sprite.getBoundingCollider(), sprite));
+                    pellets.add(x, y);
                 }
             }
         }
+        itemChanges.reset();
+        redrawCount++;
     }
 
     /**
      * Handles pac man eating pellets. Does nothing if no pellets are eaten.
      */
-    private void eatPellets() {
-        List<GameObject> eaten = pellets.stream().filter(p -> p.intersects(pacMan)).collect(Collectors.toList());
-        score += eaten.size();
-        pellets.removeAll(eaten);
+    protected void eatPellets() {
+        score += eatItems(pellets, pelletOffset(size), pelletSize(size));
+    }
+
+    /**
+     * Remove all the items that pac man touched this tick. Pac man may move several tiles in one tick, so everything that
+     * pac man's collider swept over since the start of the tick is checked, and only those tiles.
+     *
+     * @param items  The tiles that have an item on them.
+     * @param offset The distance from the top left corner of a tile to the top left corner of its item, in pixels.
+     * @param extent The side length of an item, in pixels.
+     * @return The number of items that were eaten.
+     */
+    private int eatItems(TileSet items, int offset, int extent) {
+        BoxCollider collider = pacMan.getCollider();
+        // Pac man only moves in a straight line in a tick, so the swept area is the box around the start and the end
+        int prevX = collider.getX() - pacMan.getX() + pacMan.getPrevX();
+        int prevY = collider.getY() - pacMan.getY() + pacMan.getPrevY();
+        int x = Math.min(prevX, collider.getX()), y = Math.min(prevY, collider.getY());
+        int width = collider.getWidth() + Math.abs(collider.getX() - prevX);
+        int height = collider.getHeight() + Math.abs(collider.getY() - prevY);
+        int minCol = Math.floorDiv(x, size), maxCol = Math.floorDiv(Math.max(x, x + width - 1), size);
+        int minRow = Math.floorDiv(y, size), maxRow = Math.floorDiv(Math.max(y, y + height - 1), size);
+        int eaten = 0;
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                if (items.contains(col, row) &&
+                        BoxCollider.intersects(col * size + offset, row * size + offset, extent, extent, x, y, width, height)) {
+                    items.remove(col, row);
+                    itemChanges.add(row * levelMap.getWidth() + col);
+                    eaten++;
+                }
+            }
+        }
+        return eaten;
+    }
+
+    /**
+     * Pellets are small squares in the center of their tile.
+     */
+    private static int pelletOffset(int size) {
+        return size * 3 / 8;
+    }
+
+    private static int pelletSize(int size) {
+        return size / 4;
+    }
+
+    /**
+     * Powerups are circles in the center of their tile, twice as big as pellets.
+     */
+    private static int powerupOffset(int size) {
+        return size / 4;
+    }
+
+    private static int powerupSize(int size) {
+        return size / 2;
     }
 
     /**
@@ -290,56 +645,101 @@ public abstract class PacManGame {
     private boolean playerShouldDie() {
         // the player cannot die if powerups are active
         if (powerupActive) return false;
-        // Otherwise, return true if any ghost is intersecting pacman.
-        return Arrays.stream(ghosts).filter(Objects::nonNull).anyMatch(g -> g.intersects(pacMan));
+        // Otherwise, return true if any ghost is intersecting pacman, unless ghosts are harmless.
+        return ghostConfig.isLethal() && !touchingGhosts.isEmpty();
     }
 
     /**
-     * Set the appropriate ghost behavior to the supplied ghost. Each ghost has a different behavior.
+     * If required, spawn new ghosts. No ghosts are spawned if all of them are alive, a powerup is active, or if the ghost spawn timer hasn't finished yet.
+     * The lowest index ghosts are spawned first. (ghost index 1 is spawned before ghost index 3)
+     * The behavior of each ghost comes from the ghost configuration.
+     */
+    private void spawnGhostIfNecessary() {
+        // Only spawn ghosts if no powerup is active and the timer has expired
+        if (!powerupActive && time.time() >= nextGhostSpawnTime) {
+            int spawned = 0;
+            // Fill the lowest empty indices
+            for (int index = 0; index < ghosts.length && spawned < ghostConfig.getGhostsPerSpawn(); index++) {
+                if (ghosts[index] != null) continue;
+                // Create the ghost at the spawn point with the appropriate color and behavior
+                Ghost g = new Ghost(levelMap.spawnX() * size, levelMap.spawnY() * size, size,
+                        GHOST_COLORS[index % GHOST_COLORS.length], GHOST_FLEE_COLOR);
+                g.setSpeed(Utils.round(DEF_GHOST_SPEED * size));
+                g.setBehavior(ghostConfig.createBehavior(g, index));
+                ghosts[index] = g;
+                onGhostSpawned(g);
+                spawned++;
+            }
+            // If all ghosts are alive, the timer keeps running out until one of them dies
+            if (spawned > 0) {
+                // Reset the spawn timer
+                nextGhostSpawnTime = time.time() + ghostConfig.getSpawnInterval();
+            }
+        }
+    }
+
+    /**
+     * Update the ghosts in two phases. First, every ghost decides where to go against the same snapshot of the game.
+     * The decisions don't depend on each other, so if enough ghosts have to decide, they are computed in parallel.
+     * Then, the decisions are applied and the ghosts move, one after another.
      *
-     * @param g     The ghost to set the behavior for.
-     * @param index The index of the ghost, in the range [0,4).
-     */
-    private void setBehavior(Ghost g, int index) {
-        Ghost.GhostBehavior behavior;
-        if (index == 0) {
-            behavior = new GhostChaseBehavior(g);
-        } else if (index == 1) {
-            behavior = new GhostAmbushBehavior(g);
-        } else if (index == 2) {
-            behavior = new GhostPinchBehavior(g, () -> ghosts[0]);
-        } else {
-            behavior = new GhostObliviousBehavior(g);
+     * @param dt The elapsed time in seconds since the last update.
+     */
+    private void updateGhosts(double dt) {
+        List<Ghost> thinking = new ArrayList<>();
+        for (Ghost ghost : ghosts) {
+            if (ghost != null && ghost.needsDecision()) {
+                thinking.add(ghost);
+            }
+        }
+        if (!thinking.isEmpty()) {
+            GameState state = captureState();
+            if (thinking.size() >= PARALLEL_THINK_THRESHOLD) {
+                thinking.parallelStream().forEach(g -> g.think(state));
+            } else {
+                thinking.forEach(g -> g.think(state));
+            }
+        }
+        for (Ghost ghost : ghosts) {
+            if (ghost != null) {
+                ghost.update(levelMap, dt);
+            }
         }
-        g.setBehavior(behavior);
     }
 
     /**
-     * If required, spawn a new ghost. No ghost is spawned if all 4 are alive, a powerup is active, or if the ghost spawn timer hasn't finished yet.
-     * If a ghost has to be spawned, the lowest index ghost is spawned. (ghost index 1 is spawned before ghost index 3)
+     * Take a snapshot of the game for the ghosts to decide against.
+     *
+     * @return The state of the game right now.
      */
-    private void spawnGhostIfNecessary() {
-        // Only spawn a ghost if no powerup is active and the timer has expired
-        if (!powerupActive && System.currentTimeMillis() >= nextGhostSpawnTime) {
-            // Find which ghost to spawn (the lowest empty index)
-            int index = -1;
-            for (int i = 0; i < ghosts.length; i++) {
-                if (ghosts[i] == null) {
-                    index = i;
-                    break;
-                }
+    protected GameState captureState() {
+        Coord[] ghostTiles = new Coord[ghosts.length];
+        for (int i = 0; i < ghosts.length; i++) {
+            if (ghosts[i] != null) {
+                ghostTiles[i] = ghosts[i].getTile();
             }
-            // If all ghosts are alive, don't do anything
-            if (index == -1) return;
-            // Create the ghost at the spawn point with the appropriate color and behavior
-            Ghost g = new Ghost(levelMap.spawnX() * size, levelMap.spawnY() * size, size, GHOST_COLORS[index], GHOST_FLEE_COLOR);
-            g.setSpeed(Utils.round(DEF_GHOST_SPEED * size));
-            setBehavior(g, index);
-            ghosts[index] = g;
-            System.out.println("Spawned ghost!");
-            // Reset the spawn timer
-            nextGhostSpawnTime = System.currentTimeMillis() + GHOST_SPAWN_INTERVAL;
         }
+        return new GameState(levelMap, size, pacManFlowField, pacMan.getTile(), pacMan.getPrevTile(), pacMan.getDirection(), ghostTiles);
+    }
+
+    /**
+     * Rebuild the flow field towards pac man, if pac man has moved to a new tile since it was last built.
+     */
+    private void updatePacManFlowField() {
+        int x = getPacManTileX();
+        int y = getPacManTileY();
+        if (pacManFlowField == null || pacManFlowField.getTargetX() != x || pacManFlowField.getTargetY() != y) {
+            pacManFlowField = new FlowField(levelMap, x, y);
+        }
+    }
+
+    /**
+     * Get the flow field towards pac man's current tile. This is updated once per tick, before the ghosts are updated.
+     *
+     * @return The flow field towards pac man.
+     */
+    public FlowField getPacManFlowField() {
+        return pacManFlowField;
     }
 
     public int getSize() {
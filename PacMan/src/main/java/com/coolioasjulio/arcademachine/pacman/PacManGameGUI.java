@@ -2,11 +2,14 @@ package com.coolioasjulio.arcademachine.pacman;
 
 import com.coolioasjulio.arcademachine.launcher.gameutils.InputManager;
 import com.coolioasjulio.arcademachine.pacman.engine.AwtGraphicsAdapter;
-import com.coolioasjulio.arcademachine.pacman.engine.Drawer;
+import com.coolioasjulio.arcademachine.pacman.engine.Coord;
+import com.coolioasjulio.arcademachine.pacman.engine.RecordingDrawer;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.io.DataOutputStream;
@@ -14,7 +17,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class PacManGameGUI extends PacManGame {
@@ -23,6 +28,10 @@ public class PacManGameGUI extends PacManGame {
     private static final boolean FULL_SCREEN = true;
     private static final int PANEL_WIDTH_TILE = 25;
     private static final int PANEL_HEIGHT_TILE = 9;
+    // Tiles are never shrunk below this size to fit the level on the screen. Bigger levels scroll with the camera instead.
+    private static final int MIN_TILE_SIZE = 16;
+    // The game only ticks at 20Hz, but the motion in between ticks is drawn at this rate
+    private static final int RENDER_FPS = 60;
 
     public static void main(String[] args) throws IOException {
         LevelMap map = LevelMap.loadFromImg(ImageIO.read(PacManGameGUI.class.getResourceAsStream("/pacmanlevel.png")));
@@ -63,8 +72,18 @@ public class PacManGameGUI extends PacManGame {
 
     private JFrame frame;
     private PacManPanel panel;
-    private boolean playerWon;
-    private boolean playerLost;
+    private GamePanel gamePanel;
+    // Read by the render timer on the EDT
+    private volatile boolean playerWon;
+    private volatile boolean playerLost;
+    private Timer renderTimer;
+    // The state of the last rendered frame. These are only used on the EDT.
+    private RenderSnapshot frameSnapshot;
+    private double frameAlpha;
+    private Coord lastView;
+    private int lastRedrawCount = -1;
+    private boolean lastGameOver;
+    private List<Rectangle> lastSpriteRegions = new ArrayList<>();
 
     public PacManGameGUI(LevelMap levelMap, int size) {
         super(levelMap, size);
@@ -89,6 +108,9 @@ public class PacManGameGUI extends PacManGame {
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         if (!FULL_SCREEN) frame.pack();
         setup();
+        // Draw frames in between ticks, so the motion is smooth without ticking faster
+        renderTimer = new Timer(1000 / RENDER_FPS, e -> renderFrame());
+        renderTimer.start();
         super.playGame();
     }
 
@@ -99,7 +121,8 @@ public class PacManGameGUI extends PacManGame {
     }
 
     /**
-     * Select a tile size in pixels to appropriately size the game for the screen size.
+     * Select a tile size in pixels to appropriately size the game for the screen size. If the level would need tiles smaller
+     * than the minimum size, the tiles stay at the minimum size and the camera only shows part of the level.
      */
     private void resize() {
         int size;
@@ -108,26 +131,64 @@ public class PacManGameGUI extends PacManGame {
         } else {
             size = frame.getWidth() / levelMap.getWidth();
         }
-        setSize(size);
+        setSize(Math.max(size, MIN_TILE_SIZE));
     }
 
     /**
-     * Render the UI.
+     * Pick the frame to draw next and repaint the parts of the screen that changed. This runs on the EDT at the render rate.
+     * The latest snapshot is drawn as far along its tick as the time says, so everything moves a little every frame.
+     * Only the regions covered by the sprites in the last frame and this one are repainted, unless the view scrolled.
+     */
+    private void renderFrame() {
+        RenderSnapshot snapshot = acquireSnapshot();
+        double alpha = snapshot.getInterpolation(System.nanoTime());
+        if (snapshot.getFrame() == 0 || (snapshot == frameSnapshot && alpha == frameAlpha)) {
+            // Nothing has changed since the last frame
+            return;
+        }
+        frameSnapshot = snapshot;
+        frameAlpha = alpha;
+        Coord view = new Coord(snapshot.getViewX(alpha), snapshot.getViewY(alpha));
+        List<Rectangle> spriteRegions = new ArrayList<>();
+        int size = snapshot.getSize();
+        for (int i = 0; i < snapshot.getNumSprites(); i++) {
+            spriteRegions.add(new Rectangle(snapshot.getSpriteX(i, alpha), snapshot.getSpriteY(i, alpha), size, size));
+        }
+        boolean gameOver = playerLost || playerWon;
+        if (!view.equals(lastView) || snapshot.getRedrawCount() != lastRedrawCount || gameOver != lastGameOver) {
+            // Everything on the screen changes when the view scrolls
+            gamePanel.repaint();
+        } else {
+            // Erase the sprites where they were, and draw them where they are now. Eaten items are under pac man.
+            for (Rectangle r : lastSpriteRegions) {
+                gamePanel.repaint(r.x - view.x, r.y - view.y, r.width, r.height);
+            }
+            for (Rectangle r : spriteRegions) {
+                gamePanel.repaint(r.x - view.x, r.y - view.y, r.width, r.height);
+            }
+        }
+        lastView = view;
+        lastRedrawCount = snapshot.getRedrawCount();
+        lastGameOver = gameOver;
+        lastSpriteRegions = spriteRegions;
+    }
+
+    /**
+     * Update the UI. The game itself is drawn by the render timer.
      */
     @Override
     protected void update() {
-        // Update the info panel and draw the game
+        // Update the info panel
         panel.updateInfo();
-        frame.repaint();
         // If the player has won or lost, render it
         if (playerLost || playerWon) {
             // See if the player wants to play again or not
             Boolean playAgain = null;
             do {
-                InputManager.fetchInputs();
-                if (InputManager.keyPressed(KeyEvent.VK_A)) {
+                input.fetchInputs();
+                if (input.keyPressed(KeyEvent.VK_A)) {
                     playAgain = true;
-                } else if (InputManager.keyPressed(KeyEvent.VK_B)) {
+                } else if (input.keyPressed(KeyEvent.VK_B)) {
                     playAgain = false;
                 } else {
                     try {
@@ -142,12 +203,18 @@ public class PacManGameGUI extends PacManGame {
                 setup();
                 super.playGame();
             } else {
+                renderTimer.stop();
                 frame.setVisible(false);
                 SwingUtilities.invokeLater(frame::dispose);
             }
         }
     }
 
+    @Override
+    protected void onGhostSpawned(Ghost ghost) {
+        System.out.println("Spawned ghost!");
+    }
+
     @Override
     protected void onDeath() {
         System.out.println("You died!");
@@ -193,7 +260,7 @@ public class PacManGameGUI extends PacManGame {
             livesLabel.setBackground(BG_COLOR);
             livesLabel.setHorizontalAlignment(SwingConstants.RIGHT);
 
-            GamePanel gamePanel = new GamePanel();
+            gamePanel = new GamePanel();
 
             JPanel info = new JPanel();
             info.setBackground(BG_COLOR);
@@ -219,18 +286,42 @@ public class PacManGameGUI extends PacManGame {
 
     private class GamePanel extends JPanel {
         private Map<Integer, Font> pixelSizeToFont;
+        // Only used while painting, which is always on the EDT
+        private final RecordingDrawer recorder = new RecordingDrawer();
 
         public GamePanel() {
-            Dimension size = new Dimension(levelMap.getWidth() * PacManGameGUI.this.size, levelMap.getHeight() * PacManGameGUI.this.size);
+            int tileSize = PacManGameGUI.this.size;
+            int width = levelMap.getWidth() * tileSize;
+            int height = levelMap.getHeight() * tileSize;
+            // If the level doesn't fit on the screen, only show as much as fits. The info panel takes 2 tiles.
+            if (frame.getWidth() > 0 && frame.getHeight() > 0) {
+                width = Math.min(width, frame.getWidth());
+                height = Math.max(0, Math.min(height, frame.getHeight() - 2 * tileSize));
+            }
+            Dimension size = new Dimension(width, height);
             setPreferredSize(size);
             setMaximumSize(size);
+            getCamera().setViewportSize(width, height);
+            // Keep the camera the same size as the panel
+            addComponentListener(new ComponentAdapter() {
+                @Override
+                public void componentResized(ComponentEvent e) {
+                    getCamera().setViewportSize(getWidth(), getHeight());
+                }
+            });
             pixelSizeToFont = new HashMap<>();
         }
 
         @Override
         protected void paintComponent(Graphics g) {
-            Drawer d = new AwtGraphicsAdapter(g);
-            draw(d);
+            // Only draw from the snapshot, since the game keeps running on its own thread.
+            // Draw the same frame that the render timer picked, so the repainted regions match.
+            RenderSnapshot snapshot = frameSnapshot;
+            if (snapshot == null) return;
+            // Record the frame first, so it's drawn with as few color changes and shapes as possible
+            recorder.reset();
+            draw(recorder, snapshot, frameAlpha);
+            recorder.replay(new AwtGraphicsAdapter(g));
 
             if (playerWon || playerLost) {
                 int panelWidth = size * PANEL_WIDTH_TILE;
@@ -255,7 +346,7 @@ public class PacManGameGUI extends PacManGame {
                 drawText(g, centerX, y, size * 4, s);
                 System.out.println(g.getFontMetrics().getHeight());
                 y += size * 4;
-                drawText(g, centerX, y, size * 3 / 2, String.format("Score: % 3d", getScore()));
+                drawText(g, centerX, y, size * 3 / 2, String.format("Score: % 3d", snapshot.getScore()));
 
                 y += size * 3 / 2;
                 drawText(g, centerX - panelWidth / 4, y, size * 3 / 2, "A - Play again");
@@ -0,0 +1,242 @@
+package com.coolioasjulio.arcademachine.pacman;
+
+import com.coolioasjulio.arcademachine.pacman.engine.Drawer;
+import com.coolioasjulio.arcademachine.pacman.engine.Time;
+
+import javax.imageio.ImageIO;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A version of the game without a display. The game clock is virtual, so instead of waiting between ticks the simulation
+ * steps as fast as possible, while every tick still sees the same timestep as the real game.
+ * This is used to soak test the ghost AI and collisions over a lot of ticks.
+ */
+public class PacManGameHeadless extends PacManGame {
+
+    /**
+     * Run the simulation from the command line.
+     *
+     * @param args The number of ticks to run, and optionally the number of ghosts to run a horde with.
+     * @throws IOException If the level couldn't be loaded.
+     */
+    public static void main(String[] args) throws IOException {
+        long ticks = args.length > 0 ? Long.parseLong(args[0]) : 1000000;
+        LevelMap map = LevelMap.loadFromImg(ImageIO.read(PacManGameHeadless.class.getResourceAsStream("/pacmanlevel.png")));
+        PacManGameHeadless game = new PacManGameHeadless(map, 30);
+        game.setInput(new AutoPilotInput(game));
+        if (args.length > 1) {
+            game.setGhostConfig(GhostConfig.horde(Integer.parseInt(args[1])));
+        }
+        game.simulate(ticks);
+        System.out.println(game.getReport());
+        System.out.println(game.getTickTimeReport());
+    }
+
+    // Tick times are grouped by the number of ghosts: 0, 1, 2-3, 4-7, 8-15, and so on
+    private static final int NUM_BUCKETS = 32;
+
+    private final Time.VirtualClock clock = new Time.VirtualClock();
+    // Null unless a test wants to see what is drawn, since drawing builds the maze image every tick
+    private Drawer drawer;
+    private long timestepNanos = TICK_MILLIS * 1000000;
+    private long ticks;
+    private long maxTicks;
+    private long elapsedNanos;
+    private int games, wins, losses, deaths;
+    // The duration of every tick in nanoseconds, by ghost count bucket
+    private final long[][] tickTimes = new long[NUM_BUCKETS][];
+    private final int[] tickCounts = new int[NUM_BUCKETS];
+
+    public PacManGameHeadless(LevelMap levelMap, int size) {
+        super(levelMap, size);
+        getTime().setClock(clock);
+    }
+
+    /**
+     * Set the drawer that every tick is rendered with. By default, nothing is drawn, so the tick times only include the game
+     * itself.
+     *
+     * @param drawer The drawer to render with, or null to not draw.
+     */
+    public void setDrawer(Drawer drawer) {
+        this.drawer = drawer;
+    }
+
+    /**
+     * Set the game time between ticks. By default, this is the same as the real game. Longer timesteps simulate the same
+     * game time in fewer ticks, since objects can move several tiles in one tick without passing through walls.
+     *
+     * @param seconds The timestep in seconds.
+     */
+    public void setTimestep(double seconds) {
+        if (!(seconds > 0)) {
+            throw new IllegalArgumentException("Timestep must be positive!");
+        }
+        timestepNanos = Math.round(seconds * 1e9);
+    }
+
+    /**
+     * Run the game for a number of ticks, starting a new game whenever one ends. This method blocks until all the ticks have run.
+     *
+     * @param ticks The number of ticks to run for.
+     */
+    public void simulate(long ticks) {
+        maxTicks = this.ticks + ticks;
+        long start = System.nanoTime();
+        try {
+            while (this.ticks < maxTicks && !Thread.currentThread().isInterrupted()) {
+                games++;
+                playGame();
+            }
+        } finally {
+            elapsedNanos += System.nanoTime() - start;
+        }
+    }
+
+    @Override
+    protected boolean step() {
+        if (ticks >= maxTicks) return false;
+        ticks++;
+        int bucket = bucket(getNumGhosts());
+        long start = System.nanoTime();
+        boolean keepGoing = super.step();
+        recordTickTime(bucket, System.nanoTime() - start);
+        return keepGoing;
+    }
+
+    /**
+     * Get the bucket of a ghost count. Each bucket after the first is twice as wide as the one before it.
+     */
+    private static int bucket(int numGhosts) {
+        return 32 - Integer.numberOfLeadingZeros(numGhosts);
+    }
+
+    private void recordTickTime(int bucket, long nanos) {
+        long[] times = tickTimes[bucket];
+        if (times == null) {
+            times = tickTimes[bucket] = new long[1024];
+        } else if (tickCounts[bucket] == times.length) {
+            times = tickTimes[bucket] = Arrays.copyOf(times, times.length * 2);
+        }
+        times[tickCounts[bucket]++] = nanos;
+    }
+
+    @Override
+    protected void waitForNextTick(long tickStart) {
+        // Skip straight to the next tick
+        clock.advanceNanos(timestepNanos);
+    }
+
+    @Override
+    protected void update() {
+        // The snapshot is still published every tick, it just isn't drawn
+        if (drawer != null) {
+            draw(drawer);
+        }
+    }
+
+    @Override
+    protected void onDeath() {
+        deaths++;
+    }
+
+    @Override
+    protected void onLose() {
+        losses++;
+    }
+
+    @Override
+    protected void onLevelComplete() {
+        wins++;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Get the simulation speed.
+     *
+     * @return The number of ticks simulated per second of real time.
+     */
+    public double getTicksPerSecond() {
+        return elapsedNanos == 0 ? 0 : ticks * 1e9 / elapsedNanos;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getLosses() {
+        return losses;
+    }
+
+    public int getDeaths() {
+        return deaths;
+    }
+
+    /**
+     * Get a summary of the simulation so far.
+     *
+     * @return A human readable summary.
+     */
+    public String getReport() {
+        return String.format("Simulated %d ticks in %.2fs (%.0f ticks/s). Games: %d, wins: %d, losses: %d, deaths: %d",
+                ticks, elapsedNanos / 1e9, getTicksPerSecond(), games, wins, losses, deaths);
+    }
+
+    /**
+     * Get a percentile of the tick times, for the ticks that started with a certain number of ghosts alive.
+     * Ghost counts are grouped into buckets: 0, 1, 2-3, 4-7, 8-15, and so on. The whole bucket of the ghost count is used.
+     *
+     * @param numGhosts  The number of ghosts.
+     * @param percentile The percentile, in the range [0,100].
+     * @return The tick time in microseconds, or NaN if no ticks were in the bucket.
+     */
+    public double getTickTimePercentile(int numGhosts, double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in the range [0,100]!");
+        }
+        int bucket = bucket(numGhosts);
+        int count = tickCounts[bucket];
+        if (count == 0) return Double.NaN;
+        long[] sorted = Arrays.copyOf(tickTimes[bucket], count);
+        Arrays.sort(sorted);
+        return percentile(sorted, percentile) / 1e3;
+    }
+
+    /**
+     * Nearest rank percentile of a sorted array.
+     */
+    private static long percentile(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Get a table of the tick time percentiles for each range of ghost counts. This shows how the tick time scales with the
+     * number of ghosts.
+     *
+     * @return A human readable table, with times in microseconds.
+     */
+    public String getTickTimeReport() {
+        StringBuilder sb = new StringBuilder(String.format("%-10s %10s %10s %10s %10s %10s", "Ghosts", "Ticks", "p50", "p90", "p99", "Max"));
+        for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+            int count = tickCounts[bucket];
+            if (count == 0) continue;
+            long[] sorted = Arrays.copyOf(tickTimes[bucket], count);
+            Arrays.sort(sorted);
+            int low = bucket == 0 ? 0 : 1 << (bucket - 1);
+            int high = bucket == 0 ? 0 : (1 << bucket) - 1;
+            String range = low == high ? String.valueOf(low) : low + "-" + high;
+            sb.append(String.format("%n%-10s %10d %10.1f %10.1f %10.1f %10.1f", range, count, percentile(sorted, 50) / 1e3,
+                    percentile(sorted, 90) / 1e3, percentile(sorted, 99) / 1e3, sorted[count - 1] / 1e3));
+        }
+        return sb.toString();
+    }
+}
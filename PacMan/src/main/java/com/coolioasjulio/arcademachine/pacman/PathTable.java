@@ -0,0 +1,220 @@
+package com.coolioasjulio.arcademachine.pacman;
+
+import com.coolioasjulio.arcademachine.pacman.engine.Coord;
+
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.util.stream.IntStream;
+
+/**
+ * A precomputed table of the shortest distance and first direction of travel between every pair of open tiles in a level.
+ * Since the walls of a level never change after it's loaded, this only has to be built once per level. After that,
+ * path finding queries without exclusions are just a lookup. Tables can also be saved in a level file, and then used
+ * straight out of the mapped file without building anything.
+ */
+class PathTable {
+    /**
+     * Levels with more open tiles than this don't get a table, since the table grows with the square of the open tiles.
+     */
+    static final int MAX_OPEN_TILES = 2048;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * Build the path table for a level. Each row of the table is built with its own breadth first search, and the rows are
+     * built in parallel.
+     *
+     * @param levelMap The level to build the table for.
+     * @return The path table, or null if the level has too many open tiles.
+     */
+    static PathTable build(LevelMap levelMap) {
+        return build(levelMap, MAX_OPEN_TILES);
+    }
+
+    /**
+     * Build the path table for a level, with a custom limit on the size of the table.
+     *
+     * @param levelMap     The level to build the table for.
+     * @param maxOpenTiles The most open tiles the level can have to get a table.
+     * @return The path table, or null if the level has too many open tiles.
+     */
+    static PathTable build(LevelMap levelMap, int maxOpenTiles) {
+        int[] openIndex = indexOpenTiles(levelMap);
+        int numOpen = countOpen(openIndex);
+        if (numOpen > maxOpenTiles) {
+            return null;
+        }
+        int cells = numOpen * numOpen;
+        PathTable table = new PathTable(levelMap.getWidth(), openIndex, ShortBuffer.allocate(cells), ByteBuffer.allocate(cells));
+        IntStream.range(0, numOpen).parallel().forEach(source -> table.buildRow(levelMap, source));
+        return table;
+    }
+
+    /**
+     * Use a table that was already built, such as one in a mapped level file. The buffers are used directly, not copied.
+     *
+     * @param levelMap   The level the table was built for.
+     * @param distances  The distances of the table, from {@link #getDistances()}.
+     * @param directions The directions of the table, from {@link #getDirections()}.
+     * @return The path table.
+     */
+    static PathTable wrap(LevelMap levelMap, ShortBuffer distances, ByteBuffer directions) {
+        int[] openIndex = indexOpenTiles(levelMap);
+        int numOpen = countOpen(openIndex);
+        long cells = (long) numOpen * numOpen;
+        if (distances.capacity() != cells || directions.capacity() != cells) {
+            throw new IllegalArgumentException("The path table doesn't match the level!");
+        }
+        return new PathTable(levelMap.getWidth(), openIndex, distances, directions);
+    }
+
+    /**
+     * Number the open tiles of a level in row-major order.
+     *
+     * @return The number of each tile, or -1 for walls, indexed by y * width + x.
+     */
+    private static int[] indexOpenTiles(LevelMap levelMap) {
+        int width = levelMap.getWidth();
+        int height = levelMap.getHeight();
+        int[] openIndex = new int[width * height];
+        int numOpen = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                openIndex[y * width + x] = levelMap.isWall(x, y) ? -1 : numOpen++;
+            }
+        }
+        return openIndex;
+    }
+
+    private static int countOpen(int[] openIndex) {
+        int numOpen = 0;
+        for (int index : openIndex) {
+            if (index != -1) numOpen++;
+        }
+        return numOpen;
+    }
+
+    private final int width;
+    private final int numOpen;
+    private final int[] openIndex;
+    private final int[] openTiles;
+    private final ShortBuffer distances;
+    private final ByteBuffer directions;
+
+    private PathTable(int width, int[] openIndex, ShortBuffer distances, ByteBuffer directions) {
+        this.width = width;
+        this.openIndex = openIndex;
+        numOpen = countOpen(openIndex);
+        openTiles = new int[numOpen];
+        for (int i = 0; i < openIndex.length; i++) {
+            if (openIndex[i] != -1) {
+                openTiles[openIndex[i]] = i;
+            }
+        }
+        this.distances = distances;
+        this.directions = directions;
+    }
+
+    int getNumOpen() {
+        return numOpen;
+    }
+
+    /**
+     * Get the distances of the table, for saving it.
+     *
+     * @return A read only view of the distances, with one row per source tile.
+     */
+    ShortBuffer getDistances() {
+        return distances.asReadOnlyBuffer();
+    }
+
+    /**
+     * Get the first directions of the table, for saving it.
+     *
+     * @return A read only view of the direction ordinals, with one row per source tile.
+     */
+    ByteBuffer getDirections() {
+        return directions.asReadOnlyBuffer();
+    }
+
+    /**
+     * Fill in one row of the table with a breadth first search from the source tile.
+     *
+     * @param levelMap The level the table is being built for.
+     * @param source   The open index of the source tile.
+     */
+    private void buildRow(LevelMap levelMap, int source) {
+        int row = source * numOpen;
+        for (int i = row; i < row + numOpen; i++) {
+            distances.put(i, (short) -1);
+            directions.put(i, (byte) -1);
+        }
+        int[] queue = new int[numOpen];
+        int head = 0, tail = 0;
+        queue[tail++] = source;
+        distances.put(row + source, (short) 0);
+        while (head < tail) {
+            int curr = queue[head++];
+            int tile = openTiles[curr];
+            int x = tile % width;
+            int y = tile / width;
+            for (Direction dir : DIRECTIONS) {
+                int nx = x + Utils.getDeltaX(dir);
+                int ny = y + Utils.getDeltaY(dir);
+                if (!levelMap.isOpen(nx, ny)) continue;
+                int next = openIndex[ny * width + nx];
+                if (distances.get(row + next) != -1) continue;
+                distances.put(row + next, (short) (distances.get(row + curr) + 1));
+                // The first step of the path is inherited from the parent, unless the parent is the source
+                directions.put(row + next, curr == source ? (byte) dir.ordinal() : directions.get(row + curr));
+                queue[tail++] = next;
+            }
+        }
+    }
+
+    /**
+     * Get the length of the shortest path between two open tiles.
+     *
+     * @return The number of steps in the shortest path, or -1 if there is no path.
+     */
+    int getDistance(int fromX, int fromY, int toX, int toY) {
+        return distances.get(cell(fromX, fromY, toX, toY));
+    }
+
+    /**
+     * Get the direction of the first step of the shortest path between two open tiles.
+     *
+     * @return The direction to travel in, or null if there is no path or the tiles are the same.
+     */
+    Direction getDirection(int fromX, int fromY, int toX, int toY) {
+        byte dir = directions.get(cell(fromX, fromY, toX, toY));
+        return dir == -1 ? null : DIRECTIONS[dir];
+    }
+
+    /**
+     * Checks if the shortest path in this table between two open tiles goes through any of the exclusions.
+     * The starting tile isn't checked, since a path can always leave the tile it starts on.
+     *
+     * @param exclusions The tiles to check for. Null elements are ignored.
+     * @return True if the path visits any of the exclusions, false otherwise.
+     */
+    boolean pathCrosses(int fromX, int fromY, int toX, int toY, Coord... exclusions) {
+        if (exclusions.length == 0) return false;
+        int x = fromX, y = fromY;
+        int to = openIndex[toY * width + toX];
+        while (x != toX || y != toY) {
+            Direction dir = DIRECTIONS[directions.get(openIndex[y * width + x] * numOpen + to)];
+            x += Utils.getDeltaX(dir);
+            y += Utils.getDeltaY(dir);
+            for (Coord c : exclusions) {
+                if (c != null && c.x == x && c.y == y) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int cell(int fromX, int fromY, int toX, int toY) {
+        return openIndex[fromY * width + fromX] * numOpen + openIndex[toY * width + toX];
+    }
+}
@@ -0,0 +1,307 @@
+package com.coolioasjulio.arcademachine.pacman;
+
+import com.coolioasjulio.arcademachine.pacman.engine.Sprite;
+
+import java.util.Arrays;
+
+/**
+ * Everything needed to draw one frame of the game: the view, where the visible sprites are and which images they show,
+ * and which items are left. Snapshots are filled by the game thread and handed to the drawing thread, which only draws
+ * from the snapshot, so it never sees the game halfway through a tick.
+ * <p>
+ * The view and the sprites are recorded both where they were at the start of the tick and where they are at the end of it.
+ * The game only ticks a few times per second, so a renderer that draws more often than that can draw everything in between
+ * the two positions, based on how much of the tick has gone by. This lags one tick behind the game, but the motion is smooth.
+ * <p>
+ * Snapshots are pooled. Once a snapshot has been published it isn't changed again until the drawing thread gives it back,
+ * so everything read through the public methods stays the same for as long as the drawing thread has it.
+ */
+public final class RenderSnapshot {
+    private long frame;
+    private long publishNanos;
+    private long tickNanos;
+    private int redrawCount;
+    private LevelMap levelMap;
+    private int size;
+    private int score;
+    private int lives;
+    private int prevViewX, prevViewY, viewX, viewY, viewWidth, viewHeight;
+
+    private int numSprites;
+    private Sprite[] sprites = new Sprite[8];
+    private int[] prevXs = new int[8];
+    private int[] prevYs = new int[8];
+    private int[] xs = new int[8];
+    private int[] ys = new int[8];
+    private int[] images = new int[8];
+
+    private long[] pellets = new long[0];
+    private long[] powerups = new long[0];
+    // The change log sequence number that the items were last synced at
+    private long itemsSequence = -1;
+
+    RenderSnapshot() {
+    }
+
+    /**
+     * Start filling the snapshot for a new frame. This removes the sprites, but keeps the items so they can be synced.
+     */
+    void begin(long frame, long tickNanos, int redrawCount, LevelMap levelMap, int size, int score, int lives) {
+        this.frame = frame;
+        this.tickNanos = tickNanos;
+        this.redrawCount = redrawCount;
+        if (this.levelMap != levelMap) {
+            itemsSequence = -1;
+        }
+        this.levelMap = levelMap;
+        this.size = size;
+        this.score = score;
+        this.lives = lives;
+        Arrays.fill(sprites, 0, numSprites, null);
+        numSprites = 0;
+    }
+
+    /**
+     * Set the view at the start and at the end of the tick. Both views are the same size.
+     */
+    void setView(int prevViewX, int prevViewY, int viewX, int viewY, int viewWidth, int viewHeight) {
+        this.prevViewX = prevViewX;
+        this.prevViewY = prevViewY;
+        this.viewX = viewX;
+        this.viewY = viewY;
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+    }
+
+    /**
+     * Finish the snapshot. The tick is counted as starting now, for interpolation.
+     */
+    void end() {
+        publishNanos = System.nanoTime();
+    }
+
+    /**
+     * Add a sprite to be drawn, on top of the ones that were added before it.
+     */
+    void addSprite(Sprite sprite, int prevX, int prevY, int x, int y, int image) {
+        if (numSprites == sprites.length) {
+            int capacity = 2 * numSprites;
+            sprites = Arrays.copyOf(sprites, capacity);
+            prevXs = Arrays.copyOf(prevXs, capacity);
+            prevYs = Arrays.copyOf(prevYs, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            images = Arrays.copyOf(images, capacity);
+        }
+        sprites[numSprites] = sprite;
+        prevXs[numSprites] = prevX;
+        prevYs[numSprites] = prevY;
+        xs[numSprites] = x;
+        ys[numSprites] = y;
+        images[numSprites] = image;
+        numSprites++;
+    }
+
+    /**
+     * Bring the items up to date. Only the words of the bitsets that changed since this snapshot was last synced are copied.
+     */
+    void syncItems(TileSet pellets, TileSet powerups, TileChangeLog log) {
+        long since = itemsSequence;
+        if (this.pellets.length != pellets.getNumWords() || this.powerups.length != powerups.getNumWords()) {
+            this.pellets = new long[pellets.getNumWords()];
+            this.powerups = new long[powerups.getNumWords()];
+            since = -1;
+        }
+        log.sync(since, pellets, this.pellets);
+        log.sync(since, powerups, this.powerups);
+        itemsSequence = log.getSequence();
+    }
+
+    /**
+     * Get the number of the tick this snapshot was taken on. Frames are numbered from 1.
+     *
+     * @return The frame number, or 0 if the snapshot hasn't been filled yet.
+     */
+    public long getFrame() {
+        return frame;
+    }
+
+    /**
+     * Get how far the game has gotten through the tick after this one, which is how far along the motion in this snapshot
+     * should be drawn. The game publishes a snapshot at the end of every tick, so the motion is finished by the time
+     * the next snapshot is published.
+     *
+     * @param nanoTime The current value of {@link System#nanoTime()}.
+     * @return The fraction of the tick that has passed, in the range [0,1].
+     */
+    public double getInterpolation(long nanoTime) {
+        if (tickNanos <= 0) return 1;
+        return Math.max(0, Math.min(1, (double) (nanoTime - publishNanos) / tickNanos));
+    }
+
+    /**
+     * Get the number of times the game has asked for everything to be redrawn, such as when the items were reset or the
+     * tile size changed. If this is different from the last frame that was drawn, the whole screen has to be repainted.
+     *
+     * @return The number of full redraws so far.
+     */
+    public int getRedrawCount() {
+        return redrawCount;
+    }
+
+    public LevelMap getLevelMap() {
+        return levelMap;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public int getViewX() {
+        return viewX;
+    }
+
+    public int getViewY() {
+        return viewY;
+    }
+
+    /**
+     * Get the left edge of the view partway through the tick.
+     *
+     * @param alpha The fraction of the tick, where 0 is the start and 1 is the end.
+     * @return The x coordinate of the left edge in level pixels.
+     */
+    public int getViewX(double alpha) {
+        return lerp(prevViewX, viewX, alpha);
+    }
+
+    /**
+     * Get the top edge of the view partway through the tick.
+     *
+     * @param alpha The fraction of the tick, where 0 is the start and 1 is the end.
+     * @return The y coordinate of the top edge in level pixels.
+     */
+    public int getViewY(double alpha) {
+        return lerp(prevViewY, viewY, alpha);
+    }
+
+    public int getViewWidth() {
+        return viewWidth;
+    }
+
+    public int getViewHeight() {
+        return viewHeight;
+    }
+
+    /**
+     * Get the number of sprites in the frame. Only the sprites that are at least partly in the view are included.
+     *
+     * @return The number of sprites to draw.
+     */
+    public int getNumSprites() {
+        return numSprites;
+    }
+
+    /**
+     * Get a sprite to draw. Sprites should be drawn in order, so later ones are on top.
+     * Only {@link Sprite#drawImage} may be used on it, since the game keeps changing the rest of the sprite.
+     *
+     * @param i The index of the sprite in the frame.
+     * @return The sprite.
+     */
+    public Sprite getSprite(int i) {
+        return sprites[i];
+    }
+
+    public int getSpriteX(int i) {
+        return xs[i];
+    }
+
+    public int getSpriteY(int i) {
+        return ys[i];
+    }
+
+    /**
+     * Get the x coordinate of a sprite partway through the tick.
+     *
+     * @param i     The index of the sprite in the frame.
+     * @param alpha The fraction of the tick, where 0 is the start and 1 is the end.
+     * @return The x coordinate in level pixels.
+     */
+    public int getSpriteX(int i, double alpha) {
+        return lerp(prevXs[i], xs[i], alpha);
+    }
+
+    /**
+     * Get the y coordinate of a sprite partway through the tick.
+     *
+     * @param i     The index of the sprite in the frame.
+     * @param alpha The fraction of the tick, where 0 is the start and 1 is the end.
+     * @return The y coordinate in level pixels.
+     */
+    public int getSpriteY(int i, double alpha) {
+        return lerp(prevYs[i], ys[i], alpha);
+    }
+
+    private static int lerp(int from, int to, double alpha) {
+        return from + (int) Math.round((to - from) * alpha);
+    }
+
+    /**
+     * Get the image of a sprite to draw.
+     *
+     * @param i The index of the sprite in the frame.
+     * @return The draw index to pass to {@link Sprite#drawImage}.
+     */
+    public int getSpriteImage(int i) {
+        return images[i];
+    }
+
+    public boolean hasPellet(int x, int y) {
+        return contains(pellets, x, y);
+    }
+
+    public boolean hasPowerup(int x, int y) {
+        return contains(powerups, x, y);
+    }
+
+    private boolean contains(long[] bits, int x, int y) {
+        if (levelMap == null || !Utils.inRange(x, 0, levelMap.getWidth()) || !Utils.inRange(y, 0, levelMap.getHeight())) {
+            return false;
+        }
+        int i = y * levelMap.getWidth() + x;
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Get one word of the pellet bitset, which uses the same layout as {@link TileSet#getWord(int)}.
+     *
+     * @param index The index of the word.
+     * @return The 64 bits of the word.
+     */
+    public long getPelletWord(int index) {
+        return pellets[index];
+    }
+
+    /**
+     * Get one word of the powerup bitset, which uses the same layout as {@link TileSet#getWord(int)}.
+     *
+     * @param index The index of the word.
+     * @return The 64 bits of the word.
+     */
+    public long getPowerupWord(int index) {
+        return powerups[index];
+    }
+
+    public int getNumItemWords() {
+        return pellets.length;
+    }
+}
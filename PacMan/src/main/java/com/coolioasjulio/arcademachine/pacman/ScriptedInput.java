@@ -0,0 +1,47 @@
+package com.coolioasjulio.arcademachine.pacman;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Input that plays back a script of key presses. Each key press happens on a specific tick, counting from 0 at the first
+ * call to {@link #fetchInputs()}. This makes runs reproducible, which is useful for tests and replays.
+ */
+public class ScriptedInput implements GameInput {
+    private final Map<Long, List<Integer>> script = new HashMap<>();
+    private long tick = -1;
+
+    /**
+     * Add a key press to the script.
+     *
+     * @param tick    The tick to press the key on.
+     * @param keyCode The key code to press, from {@link java.awt.event.KeyEvent}.
+     * @return This object, so calls can be chained.
+     */
+    public ScriptedInput press(long tick, int keyCode) {
+        script.computeIfAbsent(tick, t -> new ArrayList<>()).add(keyCode);
+        return this;
+    }
+
+    /**
+     * Get the current tick.
+     *
+     * @return The number of times inputs have been fetched, minus one.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    @Override
+    public void fetchInputs() {
+        tick++;
+    }
+
+    @Override
+    public boolean keyPressed(int keyCode) {
+        List<Integer> pressed = script.get(tick);
+        return pressed != null && pressed.contains(keyCode);
+    }
+}
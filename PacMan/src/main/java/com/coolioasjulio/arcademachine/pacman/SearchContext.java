@@ -0,0 +1,304 @@
+package com.coolioasjulio.arcademachine.pacman;
+
+import com.coolioasjulio.arcademachine.pacman.engine.Coord;
+
+import java.util.Arrays;
+
+/**
+ * Reusable buffers for searches through a level. Searches over tiles are breadth first, since every step between tiles costs
+ * the same. Searches over the junctions of a level use Dijkstra's algorithm, since corridors have different lengths.
+ * Instead of clearing the buffers between searches, every search gets a new generation number, and a tile only counts as
+ * visited if it was stamped with the current generation. Contexts are not thread safe, so each thread gets its own.
+ */
+class SearchContext {
+    private static final ThreadLocal<SearchContext> CONTEXTS = ThreadLocal.withInitial(SearchContext::new);
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * Get the search context of the current thread.
+     *
+     * @return The search context for this thread.
+     */
+    static SearchContext get() {
+        return CONTEXTS.get();
+    }
+
+    private int generation = 0;
+    private int[] visited = new int[0];
+    private int[] distances = new int[0];
+    private byte[] firstDirections = new byte[0];
+    private long[] excluded = new long[0];
+    private int[] queue = new int[0];
+    private int head, tail;
+    private int[] nodeVisited = new int[0];
+    private int[] nodeDistances = new int[0];
+    private byte[] nodeFirstDirections = new byte[0];
+    private int[] blockedEdges = new int[0];
+    private long[] heap = new long[16];
+    private int heapSize;
+
+    private SearchContext() {
+    }
+
+    /**
+     * Find the shortest path between two open tiles of the level. This runs Dijkstra's algorithm over the junctions of the
+     * level instead of over every tile, since the only choices to make are at junctions.
+     *
+     * @param levelMap   The level to navigate through.
+     * @param fromX      The x coordinate of the starting point.
+     * @param fromY      The y coordinate of the starting point.
+     * @param toX        The x coordinate of the ending point.
+     * @param toY        The y coordinate of the ending point.
+     * @param exclusions Any points to exclude from the search. These points are treated like walls. Null elements are ignored.
+     * @return A {@link PathFinder.PathFindingResult} object representing the direction to travel in.
+     */
+    PathFinder.PathFindingResult search(LevelMap levelMap, int fromX, int fromY, int toX, int toY, Coord... exclusions) {
+        JunctionGraph graph = levelMap.getJunctionGraph();
+        int width = levelMap.getWidth();
+        reset(width * levelMap.getHeight());
+        resetNodes(graph.numNodes(), graph.numEdges());
+        setExclusions(levelMap, exclusions, true);
+        try {
+            int from = fromY * width + fromX;
+            int to = toY * width + toX;
+            // Corridors with an excluded tile in them can't be travelled all the way through
+            for (Coord c : exclusions) {
+                if (c != null && levelMap.isOpen(c.x, c.y) && graph.getTileEdge(c.y * width + c.x) != -1) {
+                    blockedEdges[graph.getTileEdge(c.y * width + c.x)] = generation;
+                }
+            }
+
+            int fromNode = graph.getNode(from);
+            int bestDistance = Integer.MAX_VALUE;
+            int bestDirection = -1;
+            if (fromNode != -1) {
+                relax(fromNode, 0, -1);
+            } else {
+                // Start in the middle of a corridor, so we can only go towards one of its ends
+                int edge = graph.getTileEdge(from);
+                int offset = graph.getTileOffset(from);
+                int length = graph.getEdgeLength(edge);
+                if (isClear(graph, edge, offset - 1, 0)) {
+                    relax(graph.getEdgeStart(edge), offset, graph.getTowardStart(from));
+                }
+                if (isClear(graph, edge, offset + 1, length)) {
+                    relax(graph.getEdgeEnd(edge), length - offset, graph.getTowardEnd(from));
+                }
+                // If the end is in the same corridor, we may be able to go straight there
+                if (graph.getTileEdge(to) == edge) {
+                    int toOffset = graph.getTileOffset(to);
+                    int step = toOffset < offset ? -1 : 1;
+                    if (isClear(graph, edge, offset + step, toOffset)) {
+                        bestDistance = Math.abs(toOffset - offset);
+                        bestDirection = step < 0 ? graph.getTowardStart(from) : graph.getTowardEnd(from);
+                    }
+                }
+            }
+
+            int toNode = graph.getNode(to);
+            int toEdge = graph.getTileEdge(to);
+            while (heapSize > 0) {
+                long entry = pop();
+                int node = (int) entry;
+                int distance = (int) (entry >>> 32);
+                if (distance >= bestDistance) break;
+                if (distance > nodeDistances[node]) continue; // A shorter way to this node was already found
+                int firstDirection = nodeFirstDirections[node];
+                if (node == toNode) {
+                    bestDistance = distance;
+                    bestDirection = firstDirection;
+                    break;
+                }
+                // If the end is in a corridor leaving this junction, see if we can get there from here
+                if (toEdge != -1) {
+                    int toOffset = graph.getTileOffset(to);
+                    int length = graph.getEdgeLength(toEdge);
+                    if (graph.getEdgeStart(toEdge) == node && distance + toOffset < bestDistance && isClear(graph, toEdge, 1, toOffset)) {
+                        bestDistance = distance + toOffset;
+                        bestDirection = node == fromNode ? graph.getEdgeStartDirection(toEdge) : firstDirection;
+                    }
+                    if (graph.getEdgeEnd(toEdge) == node && distance + length - toOffset < bestDistance &&
+                            isClear(graph, toEdge, length - 1, toOffset)) {
+                        bestDistance = distance + length - toOffset;
+                        bestDirection = node == fromNode ? graph.getEdgeEndDirection(toEdge) : firstDirection;
+                    }
+                }
+                // Travel down every unblocked corridor leaving this junction
+                for (int dir = 0; dir < 4; dir++) {
+                    int edge = graph.getEdge(node, dir);
+                    if (edge == -1 || blockedEdges[edge] == generation) continue;
+                    boolean forwards = graph.getEdgeStart(edge) == node && graph.getEdgeStartDirection(edge) == dir;
+                    int next = forwards ? graph.getEdgeEnd(edge) : graph.getEdgeStart(edge);
+                    if (isExcluded(graph.getNodeTile(next))) continue;
+                    relax(next, distance + graph.getEdgeLength(edge), node == fromNode ? dir : firstDirection);
+                }
+            }
+            if (bestDirection == -1) {
+                // The search ran out of junctions without finding the end, so there is no path
+                return new PathFinder.PathFindingResult(0, null);
+            }
+            return new PathFinder.PathFindingResult(bestDistance + 1, DIRECTIONS[bestDirection]);
+        } finally {
+            setExclusions(levelMap, exclusions, false);
+        }
+    }
+
+    /**
+     * Checks that none of the tiles of a corridor between two offsets are excluded. Offsets of 0 and the length of the corridor
+     * refer to the junctions at the start and end of the corridor.
+     */
+    private boolean isClear(JunctionGraph graph, int edge, int fromOffset, int toOffset) {
+        int length = graph.getEdgeLength(edge);
+        int step = toOffset < fromOffset ? -1 : 1;
+        for (int offset = fromOffset; offset != toOffset + step; offset += step) {
+            int tile;
+            if (offset == 0) tile = graph.getNodeTile(graph.getEdgeStart(edge));
+            else if (offset == length) tile = graph.getNodeTile(graph.getEdgeEnd(edge));
+            else tile = graph.getEdgeTile(edge, offset);
+            if (isExcluded(tile)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Record a path to a junction if it's shorter than any path found so far.
+     */
+    private void relax(int node, int distance, int firstDirection) {
+        if (nodeVisited[node] == generation && nodeDistances[node] <= distance) return;
+        nodeVisited[node] = generation;
+        nodeDistances[node] = distance;
+        nodeFirstDirections[node] = (byte) firstDirection;
+        push(((long) distance << 32) | node);
+    }
+
+    private void push(long entry) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length * 2);
+        }
+        // Sift up
+        int i = heapSize++;
+        while (i > 0 && heap[(i - 1) / 2] > entry) {
+            heap[i] = heap[(i - 1) / 2];
+            i = (i - 1) / 2;
+        }
+        heap[i] = entry;
+    }
+
+    private long pop() {
+        long top = heap[0];
+        long last = heap[--heapSize];
+        // Sift down
+        int i = 0;
+        while (2 * i + 1 < heapSize) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) child++;
+            if (heap[child] >= last) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+
+    /**
+     * Fill in the distance from every tile of the level to a single open tile. Since every step costs the same in both
+     * directions, this is also the distance from that tile to every other tile.
+     *
+     * @param levelMap  The level to navigate through.
+     * @param x         The x coordinate of the tile to measure distances to.
+     * @param y         The y coordinate of the tile to measure distances to.
+     * @param distances The array to fill, indexed by y * width + x. Tiles that can't reach the supplied tile are set to -1.
+     */
+    void fillDistances(LevelMap levelMap, int x, int y, int[] distances) {
+        int width = levelMap.getWidth();
+        Arrays.fill(distances, -1);
+        if (!levelMap.isOpen(x, y)) return;
+        reset(width * levelMap.getHeight());
+        visit(y * width + x, 0, (byte) -1);
+        while (head != tail) {
+            int tile = dequeue();
+            distances[tile] = this.distances[tile];
+            int tileX = tile % width;
+            int tileY = tile / width;
+            for (Direction dir : DIRECTIONS) {
+                int nx = tileX + Utils.getDeltaX(dir);
+                int ny = tileY + Utils.getDeltaY(dir);
+                if (!levelMap.isOpen(nx, ny)) continue;
+                int next = ny * width + nx;
+                if (visited[next] == generation) continue;
+                visit(next, this.distances[tile] + 1, (byte) -1);
+            }
+        }
+    }
+
+    /**
+     * Start a new search over a level with the given number of tiles, growing the buffers if necessary.
+     */
+    private void reset(int numTiles) {
+        if (visited.length < numTiles) {
+            visited = new int[numTiles];
+            distances = new int[numTiles];
+            firstDirections = new byte[numTiles];
+            excluded = new long[(numTiles + 63) / 64];
+            // The queue is a ring buffer, so its capacity is kept at a power of two
+            queue = new int[Integer.highestOneBit(Math.max(1, numTiles - 1)) << 1];
+            // The junction buffers are stamped with the same generation, so they have to start over too
+            Arrays.fill(nodeVisited, 0);
+            Arrays.fill(blockedEdges, 0);
+            generation = 0;
+        }
+        if (++generation == 0) {
+            // The generation counter wrapped around, so old stamps could be mistaken for new ones
+            Arrays.fill(visited, 0);
+            Arrays.fill(nodeVisited, 0);
+            Arrays.fill(blockedEdges, 0);
+            generation = 1;
+        }
+        head = tail = 0;
+    }
+
+    /**
+     * Start a new search over a junction graph with the given number of junctions and corridors, growing the buffers if necessary.
+     * This must be called after {@link #reset(int)}, since the junction buffers share its generation.
+     */
+    private void resetNodes(int numNodes, int numEdges) {
+        if (nodeVisited.length < numNodes || blockedEdges.length < numEdges) {
+            nodeVisited = new int[numNodes];
+            nodeDistances = new int[numNodes];
+            nodeFirstDirections = new byte[numNodes];
+            blockedEdges = new int[numEdges];
+        }
+        heapSize = 0;
+    }
+
+    private void setExclusions(LevelMap levelMap, Coord[] exclusions, boolean set) {
+        int width = levelMap.getWidth();
+        for (Coord c : exclusions) {
+            if (c == null || !levelMap.isOpen(c.x, c.y)) continue;
+            int tile = c.y * width + c.x;
+            if (set) {
+                excluded[tile >>> 6] |= 1L << tile;
+            } else {
+                excluded[tile >>> 6] &= ~(1L << tile);
+            }
+        }
+    }
+
+    private boolean isExcluded(int tile) {
+        return (excluded[tile >>> 6] & (1L << tile)) != 0;
+    }
+
+    private void visit(int tile, int distance, byte firstDirection) {
+        visited[tile] = generation;
+        distances[tile] = distance;
+        firstDirections[tile] = firstDirection;
+        queue[tail] = tile;
+        tail = (tail + 1) & (queue.length - 1);
+    }
+
+    private int dequeue() {
+        int tile = queue[head];
+        head = (head + 1) & (queue.length - 1);
+        return tile;
+    }
+}
@@ -0,0 +1,62 @@
+package com.coolioasjulio.arcademachine.pacman;
+
+/**
+ * A log of where {@link TileSet}s have changed, so copies of them can be brought up to date by only copying the words of the
+ * bitset that changed since the copy was last synced. Each change gets a sequence number. Only a limited number of changes
+ * are kept, so copies that fall too far behind are copied in full instead.
+ */
+class TileChangeLog {
+    private static final int CAPACITY = 1024;
+
+    private final int[] words = new int[CAPACITY];
+    private int count;
+    // The sequence number of the first change in the log
+    private long start;
+
+    /**
+     * Record that a tile changed.
+     *
+     * @param tile The index of the tile, which is y * width + x.
+     */
+    void add(int tile) {
+        if (count == CAPACITY) {
+            start += count;
+            count = 0;
+        }
+        words[count++] = tile >>> 6;
+    }
+
+    /**
+     * Record that anything may have changed, such as when a set is cleared. Every copy has to be copied in full afterwards.
+     */
+    void reset() {
+        start += count + 1;
+        count = 0;
+    }
+
+    /**
+     * Get the sequence number of the next change. A copy synced now is up to date with all changes before this.
+     *
+     * @return The current sequence number.
+     */
+    long getSequence() {
+        return start + count;
+    }
+
+    /**
+     * Bring a copy of a tile set up to date.
+     *
+     * @param since  The sequence number the copy was last synced at, or -1 if it was never synced.
+     * @param source The tile set to copy from.
+     * @param dest   The copy of the words of the tile set, which must be the same length as the tile set.
+     */
+    void sync(long since, TileSet source, long[] dest) {
+        if (since < start) {
+            source.copyWords(dest);
+            return;
+        }
+        for (int i = (int) (since - start); i < count; i++) {
+            dest[words[i]] = source.getWord(words[i]);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.coolioasjulio.arcademachine.pacman;
+
+import java.util.Arrays;
+
+/**
+ * A set of tiles in a level, packed into a bitset. The bit for a tile is at index y * width + x.
+ * This is used for things like pellets, where there is at most one per tile.
+ */
+public class TileSet {
+    private final int width, height;
+    private final long[] bits;
+    private int size;
+
+    /**
+     * Create an empty tile set.
+     *
+     * @param width  The width of the level, in tiles.
+     * @param height The height of the level, in tiles.
+     */
+    public TileSet(int width, int height) {
+        this.width = width;
+        this.height = height;
+        bits = new long[(width * height + 63) / 64];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Checks if the tile is in the set.
+     *
+     * @param x X coordinate, in tiles.
+     * @param y Y coordinate, in tiles.
+     * @return True if the tile is in bounds and in the set, false otherwise.
+     */
+    public boolean contains(int x, int y) {
+        if (!Utils.inRange(x, 0, width) || !Utils.inRange(y, 0, height)) return false;
+        int i = y * width + x;
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Add a tile to the set.
+     *
+     * @param x X coordinate, in tiles.
+     * @param y Y coordinate, in tiles.
+     */
+    public void add(int x, int y) {
+        int i = y * width + x;
+        if ((bits[i >>> 6] & (1L << i)) == 0) {
+            bits[i >>> 6] |= 1L << i;
+            size++;
+        }
+    }
+
+    /**
+     * Remove a tile from the set.
+     *
+     * @param x X coordinate, in tiles.
+     * @param y Y coordinate, in tiles.
+     * @return True if the tile was in the set, false otherwise.
+     */
+    public boolean remove(int x, int y) {
+        if (!contains(x, y)) return false;
+        int i = y * width + x;
+        bits[i >>> 6] &= ~(1L << i);
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(bits, 0);
+        size = 0;
+    }
+
+    /**
+     * Get the number of tiles in the set.
+     *
+     * @return The number of tiles in the set.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Get the number of words in the bitset.
+     *
+     * @return The number of longs the bitset is packed into.
+     */
+    public int getNumWords() {
+        return bits.length;
+    }
+
+    /**
+     * Get one word of the bitset. Bit b of word w is the tile with index 64 * w + b.
+     *
+     * @param index The index of the word.
+     * @return The 64 bits of the word.
+     */
+    public long getWord(int index) {
+        return bits[index];
+    }
+
+    /**
+     * Copy the whole bitset.
+     *
+     * @param dest The array to copy into. It must have at least {@link #getNumWords()} elements.
+     */
+    public void copyWords(long[] dest) {
+        System.arraycopy(bits, 0, dest, 0, bits.length);
+    }
+
+    /**
+     * Find the next tile in the set, in row-major order. To iterate through the set, start at 0 and then keep passing one
+     * more than the last returned tile.
+     *
+     * @param from The tile index to start looking from, inclusive. The index of a tile is y * width + x.
+     * @return The index of the next tile in the set, or -1 if there are no more.
+     */
+    public int nextTile(int from) {
+        int word = from >>> 6;
+        if (word >= bits.length) return -1;
+        long w = bits[word] & (-1L << from);
+        while (w == 0) {
+            if (++word == bits.length) return -1;
+            w = bits[word];
+        }
+        return word * 64 + Long.numberOfTrailingZeros(w);
+    }
+}
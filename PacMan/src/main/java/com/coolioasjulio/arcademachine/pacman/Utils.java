@@ -1,6 +1,5 @@
 package com.coolioasjulio.arcademachine.pacman;
 
-import com.coolioasjulio.arcademachine.pacman.engine.BoxCollider;
 import com.coolioasjulio.arcademachine.pacman.engine.GameObject;
 
 public class Utils {
@@ -90,6 +89,7 @@ public class Utils {
         if (obj.getParent() != null) {
             throw new IllegalArgumentException("Only objects that aren't children can be warped!");
         }
+        int x = obj.getX(), y = obj.getY();
         if (obj.getX() / size >= levelMap.getWidth()) {
             obj.setLocalPosition(0, obj.getY());
         } else if (obj.getX() / size < 0) {
@@ -100,6 +100,10 @@ public class Utils {
         } else if (obj.getY() / size < 0) {
             obj.setLocalPosition(obj.getX(), (levelMap.getHeight() - 1) * size);
         }
+        // Teleporting isn't movement, so the object shouldn't be drawn sliding across the level
+        if (obj.getX() != x || obj.getY() != y) {
+            obj.savePosition();
+        }
     }
 
     /**
@@ -121,52 +125,106 @@ public class Utils {
         if (Math.abs(obj.getTileY(size) * size - obj.getY()) <= threshold) {
             y = obj.getTileY(size) * size;
         }
+        // Snapping is only done when turning, so any leftover movement is in the old direction.
+        // Setting the position drops it.
         obj.setLocalPosition(x, y);
     }
 
     /**
      * Move the supplied game object in the supplied level map in the supplied direction by at most the supplied distance.
-     * It will try to move by the full distance, but if there is a wall in the way, it will move as much as possible instead.
+     * The distance may be a fraction of a pixel. Positions are whole pixels, so the leftover fraction is kept by the object in
+     * {@link GameObject#SUBPIXELS}ths of a pixel and added to its next move in the same direction. This way, the object covers
+     * exactly the distance it was told to on average, no matter how the time is split into steps. Turning, or putting the
+     * object somewhere else by snapping, warping or setting its position, drops the leftover.
+     * See {@link #moveGameObject(GameObject, LevelMap, Direction, int, int)} for how walls are handled.
+     *
+     * @param obj       The object to move.
+     * @param levelMap  The active level map.
+     * @param direction The direction to move in.
+     * @param distance  The distance to move, in pixels. This cannot be negative.
+     * @param size      The side length of a tile, in pixels.
+     */
+    public static void moveGameObject(GameObject obj, LevelMap levelMap, Direction direction, double distance, int size) {
+        if (distance < 0) {
+            throw new IllegalArgumentException("Distance to move cannot be negative!");
+        }
+        // Leftover movement in another direction would be spent on the wrong axis, or backwards
+        int leftover = obj.getSubPixelDirection() == direction ? obj.getSubPixels() : 0;
+        long subPixels = Math.round(distance * GameObject.SUBPIXELS) + leftover;
+        int pixels = (int) Math.min(Integer.MAX_VALUE, subPixels / GameObject.SUBPIXELS);
+        int moved = sweep(obj, levelMap, direction, pixels, size);
+        // If a wall was in the way, the leftover fraction would only push into the wall next time
+        obj.setSubPixels(moved == pixels ? (int) (subPixels % GameObject.SUBPIXELS) : 0, direction);
+    }
+
+    /**
+     * Move the supplied game object in the supplied level map in the supplied direction by at most the supplied distance.
+     * It will try to move by the full distance, but if there is a wall in the way, it will stop right in front of the first wall instead.
+     * The whole path is checked, so the object can move any number of tiles at once without passing through walls.
      *
      * @param obj The object to move.
      * @param levelMap The active level map.
      * @param direction The direction to move in.
-     * @param distance The distance to move, in pixels. This cannot exceed the size of a tile.
+     * @param distance The distance to move, in pixels. This cannot be negative.
      * @param size The side length of a tile, in pixels.
      */
     public static void moveGameObject(GameObject obj, LevelMap levelMap, Direction direction, int distance, int size) {
-        if (distance >= size)
-        {
-            throw new IllegalArgumentException("Distance to move cannot be more than the size of a tile!");
+        if (distance < 0) {
+            throw new IllegalArgumentException("Distance to move cannot be negative!");
         }
+        sweep(obj, levelMap, direction, distance, size);
+    }
+
+    /**
+     * Sweep a tile sized box along the grid, and move it as far as it gets before hitting a wall.
+     * Only the lines of tiles that the leading edge of the box enters are checked, in the order it enters them.
+     *
+     * @return The distance moved, in pixels.
+     */
+    private static int sweep(GameObject obj, LevelMap levelMap, Direction direction, int distance, int size) {
+        boolean horizontal = direction == Direction.EAST || direction == Direction.WEST;
         int dx = Utils.getDeltaX(direction);
         int dy = Utils.getDeltaY(direction);
-        int newXPixel = Utils.round(obj.getX() + dx * distance);
-        int newYPixel = Utils.round(obj.getY() + dy * distance);
-        // If moving the full distance results in a collision with a wall, then snap backwards to the closest open tile
-        if (levelMap.collides(new BoxCollider(newXPixel, newYPixel, size, size), size)) {
-            int x = obj.getX(), y = obj.getY();
-            switch (direction) {
-                case EAST:
-                    x = size * (int) Math.ceil(((double) obj.getX()) / size);
-                    break;
-
-                case WEST:
-                    x = size * (int) Math.floor(((double) obj.getX()) / size);
+        // The position along the direction of movement, and the tiles that the box covers across it
+        int pos = horizontal ? obj.getX() : obj.getY();
+        int cross = horizontal ? obj.getY() : obj.getX();
+        int minCross = Math.floorDiv(cross, size), maxCross = Math.floorDiv(cross + size - 1, size);
+        // Walls are only inside the level, so there's nothing to hit past the edges
+        int numLines = horizontal ? levelMap.getWidth() : levelMap.getHeight();
+        long moved = distance;
+        if (dx + dy > 0) {
+            long last = Math.floorDiv((long) pos + distance + size - 1, size);
+            for (long line = Math.max(0, Math.floorDiv((long) pos + size - 1, size) + 1); line <= Math.min(last, numLines - 1); line++) {
+                if (hasWall(levelMap, horizontal, (int) line, minCross, maxCross)) {
+                    moved = line * size - size - pos;
                     break;
-
-                case SOUTH:
-                    y = size * (int) Math.ceil(((double) obj.getY()) / size);
+                }
+            }
+        } else {
+            long last = Math.floorDiv((long) pos - distance, size);
+            for (long line = Math.min(numLines - 1, Math.floorDiv(pos, size) - 1); line >= Math.max(last, 0); line--) {
+                if (hasWall(levelMap, horizontal, (int) line, minCross, maxCross)) {
+                    moved = pos - (line + 1) * size;
                     break;
+                }
+            }
+        }
+        obj.setLocalPosition(obj.getX() + dx * (int) moved, obj.getY() + dy * (int) moved);
+        return (int) moved;
+    }
 
-                case NORTH:
-                    y = size * (int) Math.floor(((double) obj.getY()) / size);
-                    break;
+    /**
+     * Checks if there's a wall in part of a column or row of tiles.
+     *
+     * @param horizontal If true, check column line between rows from and to. Otherwise, check row line between columns from and to.
+     */
+    private static boolean hasWall(LevelMap levelMap, boolean horizontal, int line, int from, int to) {
+        int max = (horizontal ? levelMap.getHeight() : levelMap.getWidth()) - 1;
+        for (int i = Math.max(0, from); i <= Math.min(to, max); i++) {
+            if (horizontal ? levelMap.isWall(line, i) : levelMap.isWall(i, line)) {
+                return true;
             }
-            obj.setLocalPosition(x, y);
-        } else {
-            // Otherwise, just move there
-            obj.setLocalPosition(newXPixel, newYPixel);
         }
+        return false;
     }
 }
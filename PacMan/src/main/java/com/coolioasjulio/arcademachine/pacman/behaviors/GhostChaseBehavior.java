@@ -1,9 +1,8 @@
 package com.coolioasjulio.arcademachine.pacman.behaviors;
 
 import com.coolioasjulio.arcademachine.pacman.Direction;
+import com.coolioasjulio.arcademachine.pacman.GameState;
 import com.coolioasjulio.arcademachine.pacman.Ghost;
-import com.coolioasjulio.arcademachine.pacman.PacManGame;
-import com.coolioasjulio.arcademachine.pacman.PathFinder;
 
 /**
  * This is the simplest behavior. This is the first ghost (index 0). It just chases pac man and goes along the shortest route.
@@ -15,17 +14,11 @@ public class GhostChaseBehavior extends Ghost.GhostBehavior {
     }
 
     @Override
-    public Direction getDirection() {
-        PacManGame game = PacManGame.getInstance();
-        int size = game.getSize();
+    public Direction getDirection(GameState state) {
+        int size = state.getSize();
         int x = ghost.getTileX(size);
         int y = ghost.getTileY(size);
-        // Calculate a path to pac man and follow it. Exclude the ghost's previous tile to prevent U-turns
-        return PathFinder.pathFind(
-                game.getLevelMap(),
-                x,
-                y,
-                game.getPacManTileX(),
-                game.getPacManTileY(), ghost.getPrevTile()).direction;
+        // Follow the shared path to pac man. Exclude the ghost's previous tile to prevent U-turns
+        return state.getPacManFlowField().pathFind(x, y, ghost.getPrevTile()).direction;
     }
 }
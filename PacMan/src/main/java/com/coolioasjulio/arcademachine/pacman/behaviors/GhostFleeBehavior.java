@@ -1,12 +1,13 @@
 package com.coolioasjulio.arcademachine.pacman.behaviors;
 
 import com.coolioasjulio.arcademachine.pacman.Direction;
+import com.coolioasjulio.arcademachine.pacman.GameState;
 import com.coolioasjulio.arcademachine.pacman.Ghost;
 import com.coolioasjulio.arcademachine.pacman.LevelMap;
 import com.coolioasjulio.arcademachine.pacman.Utils;
-import com.coolioasjulio.arcademachine.pacman.PacManGame;
 
 import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * This is the flee behavior. All ghosts switch to this behavior when the powerup is active.
@@ -18,7 +19,7 @@ public class GhostFleeBehavior extends Ghost.GhostBehavior {
     }
 
     @Override
-    public Direction getDirection() {
+    public Direction getDirection(GameState state) {
         // When just started, make a U-turn
         if (!started) {
             started = true;
@@ -26,13 +27,13 @@ public class GhostFleeBehavior extends Ghost.GhostBehavior {
         }
         int dx = Utils.getDeltaX(ghost.getDirection());
         int dy = Utils.getDeltaY(ghost.getDirection());
-        LevelMap levelMap = PacManGame.getInstance().getLevelMap();
+        LevelMap levelMap = state.getLevelMap();
         // If the front tile is open, keep going forward
         if (levelMap.isOpen(ghost.getTile().x + dx, ghost.getTile().y + dy)) {
             return null;
         } else {
             // Otherwise, turn either left or right
-            boolean rightFirst = Math.random() > 0.5; // If true, check if right is open before left. Otherwise, check left first
+            boolean rightFirst = ThreadLocalRandom.current().nextBoolean(); // If true, check if right is open before left. Otherwise, check left first
             int adjust = 1;
             // If we're checking left first, reverse dx and dy so the rotation is correct
             if (!rightFirst) {
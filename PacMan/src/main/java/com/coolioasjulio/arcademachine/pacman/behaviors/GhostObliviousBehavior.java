@@ -1,13 +1,14 @@
 package com.coolioasjulio.arcademachine.pacman.behaviors;
 
 import com.coolioasjulio.arcademachine.pacman.Direction;
+import com.coolioasjulio.arcademachine.pacman.GameState;
 import com.coolioasjulio.arcademachine.pacman.Ghost;
 import com.coolioasjulio.arcademachine.pacman.LevelMap;
-import com.coolioasjulio.arcademachine.pacman.PacManGame;
 import com.coolioasjulio.arcademachine.pacman.PathFinder;
 import com.coolioasjulio.arcademachine.pacman.engine.Coord;
 
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * This is the behavior of the 4th ghost (index=3). It will chase pac man until it's within 8 tiles, and then it will wander
@@ -21,18 +22,19 @@ public class GhostObliviousBehavior extends Ghost.GhostBehavior {
     }
 
     @Override
-    public Direction getDirection() {
-        PacManGame game = PacManGame.getInstance();
-        LevelMap levelMap = game.getLevelMap();
+    public Direction getDirection(GameState state) {
+        LevelMap levelMap = state.getLevelMap();
+        Coord pacManPrevTile = state.getPacManPrevTile();
         // If we're farther than 8 tiles from pac man, go towards pac man
-        PathFinder.PathFindingResult toPacMan = PathFinder.pathFind(levelMap,
-                ghost.getTile(), game.getPacMan().getTile(), ghost.getPrevTile(), game.getPacMan().getPrevTile());
+        Coord tile = ghost.getTile();
+        PathFinder.PathFindingResult toPacMan = state.getPacManFlowField().pathFind(tile.x, tile.y,
+                ghost.getPrevTile(), pacManPrevTile);
         if (toPacMan.distance > 8) return toPacMan.direction;
 
         // Go towards the randomly selected point until the ghost is 1 tile away
         if (randomCoord != null) {
             PathFinder.PathFindingResult toRandom = PathFinder.pathFind(levelMap, ghost.getTile(), randomCoord, ghost.getPrevTile(),
-                    game.getPacMan().getPrevTile());
+                    pacManPrevTile);
             if (toRandom.distance > 1) {
                 return toRandom.direction;
             }
@@ -40,7 +42,8 @@ public class GhostObliviousBehavior extends Ghost.GhostBehavior {
 
         // Select a new random point to go towards
         Coord c = new Coord(0, 0);
-        Random r = new Random();
+        // Behaviors may run on any thread, so use that thread's generator
+        Random r = ThreadLocalRandom.current();
         // Select random points until an open tile is found
         do {
             c.x = r.nextInt(levelMap.getWidth());
@@ -49,6 +52,6 @@ public class GhostObliviousBehavior extends Ghost.GhostBehavior {
         randomCoord = c;
         // Navigate towards the randomly selected point
         return PathFinder.pathFind(levelMap, ghost.getTile(), randomCoord, ghost.getPrevTile(),
-                game.getPacMan().getPrevTile()).direction;
+                pacManPrevTile).direction;
     }
 }
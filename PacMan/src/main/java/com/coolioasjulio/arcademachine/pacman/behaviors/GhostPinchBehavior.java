@@ -1,12 +1,11 @@
 package com.coolioasjulio.arcademachine.pacman.behaviors;
 
 import com.coolioasjulio.arcademachine.pacman.Direction;
+import com.coolioasjulio.arcademachine.pacman.GameState;
 import com.coolioasjulio.arcademachine.pacman.Ghost;
 import com.coolioasjulio.arcademachine.pacman.Utils;
-import com.coolioasjulio.arcademachine.pacman.PacManGame;
 import com.coolioasjulio.arcademachine.pacman.PathFinder;
-
-import java.util.function.Supplier;
+import com.coolioasjulio.arcademachine.pacman.engine.Coord;
 
 /**
  * This is the behavior of the 3rd ghost (index=2). This works together with the 1st ghost to pinch the player.
@@ -14,38 +13,37 @@ import java.util.function.Supplier;
  * Basically, it tries to put pac man between itself and the other ghost.
  */
 public class GhostPinchBehavior extends Ghost.GhostBehavior {
-    private Supplier<Ghost> otherSupplier;
+    private int otherIndex;
     private GhostChaseBehavior chaseBehavior;
 
     /**
      * Create a GhostPinchBehavior.
      *
-     * @param ghost         The ghost that has this behavior.
-     * @param otherSupplier This supplier gives the ghost that it will work with. This is the first ghost. The reason it's
-     *                      a supplier and not a ghost is because the other ghost may die and become replaced.
+     * @param ghost      The ghost that has this behavior.
+     * @param otherIndex The index of the ghost that it will work with. This is the first ghost. The reason it's an index
+     *                   and not a ghost is because the other ghost may die and become replaced.
      */
-    public GhostPinchBehavior(Ghost ghost, Supplier<Ghost> otherSupplier) {
+    public GhostPinchBehavior(Ghost ghost, int otherIndex) {
         super(ghost);
-        this.otherSupplier = otherSupplier;
+        this.otherIndex = otherIndex;
         chaseBehavior = new GhostChaseBehavior(ghost);
     }
 
     @Override
-    public Direction getDirection() {
-        PacManGame game = PacManGame.getInstance();
-        int pacManX = game.getPacManTileX();
-        int pacManY = game.getPacManTileY();
+    public Direction getDirection(GameState state) {
+        int pacManX = state.getPacManTileX();
+        int pacManY = state.getPacManTileY();
 
-        // Get the other ghost to use for calculations
-        Ghost other = otherSupplier.get();
+        // Get the tile of the other ghost to use for calculations
+        Coord other = state.getGhostTile(otherIndex);
         // If that ghost is dead, default to the chase behavior
         if (other == null) {
-            return chaseBehavior.getDirection();
+            return chaseBehavior.getDirection(state);
         }
 
-        int size = game.getSize();
-        int otherX = other.getTileX(size);
-        int otherY = other.getTileY(size);
+        int size = state.getSize();
+        int otherX = other.x;
+        int otherY = other.y;
 
         // Calculate a line between the other ghost and pac man
         double x = 2 * pacManX - otherX;
@@ -54,7 +52,7 @@ public class GhostPinchBehavior extends Ghost.GhostBehavior {
         double dx = Math.signum(otherX - pacManX);
         double dy = Math.signum(otherY - pacManY);
         // Go along the line until the first open tile is found
-        while (!game.getLevelMap().isOpen(Utils.round(x), Utils.round(y))) {
+        while (!state.getLevelMap().isOpen(Utils.round(x), Utils.round(y))) {
             if (absSlope >= 1) {
                 x += dx / absSlope;
                 y += dy;
@@ -70,8 +68,8 @@ public class GhostPinchBehavior extends Ghost.GhostBehavior {
         int tileX = ghost.getTileX(size);
         int tileY = ghost.getTileY(size);
         // Navigate to that open tile
-        return PathFinder.pathFind(game.getLevelMap(),
+        return PathFinder.pathFind(state.getLevelMap(),
                 tileX, tileY,
-                Utils.round(x), Utils.round(y), ghost.getPrevTile(), other.getTile()).direction;
+                Utils.round(x), Utils.round(y), ghost.getPrevTile(), other).direction;
     }
 }
@@ -0,0 +1,137 @@
+package com.coolioasjulio.arcademachine.pacman.engine;
+
+import java.util.Arrays;
+
+/**
+ * A {@link Locatable} that caches its absolute position. Objects keep track of their children, and when an object moves or
+ * changes parents, it marks itself and everything under it as dirty. Getting the absolute position of a clean object is
+ * just a flag check, and a dirty one is recomputed from its parent once and then cached again.
+ * <p>
+ * Only parents that are also AbstractLocatables can tell their children when they move, so the position of an object with
+ * any other kind of parent isn't cached.
+ */
+public abstract class AbstractLocatable implements Locatable {
+    private static final AbstractLocatable[] NO_CHILDREN = new AbstractLocatable[0];
+
+    private Locatable parent;
+    private int x, y;
+    private AbstractLocatable[] children = NO_CHILDREN;
+    private int numChildren;
+    // The absolute position, with x in the high half and y in the low half, so it's always written in one piece
+    private volatile long cachedPosition;
+    // Written after the cached position, so a reader that sees it clear also sees the matching position.
+    // If an object is dirty, so is everything under it.
+    private volatile boolean dirty = true;
+
+    public AbstractLocatable(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Set the position relative to the parent object.
+     *
+     * @param x The local x-coordinate in pixels.
+     * @param y The local y-coordinate in pixels.
+     */
+    protected void setLocalPosition(int x, int y) {
+        this.x = x;
+        this.y = y;
+        markDirty();
+    }
+
+    @Override
+    public void setParent(Locatable parent) {
+        if (this.parent instanceof AbstractLocatable) {
+            ((AbstractLocatable) this.parent).removeChild(this);
+        }
+        this.parent = parent;
+        if (parent instanceof AbstractLocatable) {
+            ((AbstractLocatable) parent).addChild(this);
+        }
+        markDirty();
+    }
+
+    @Override
+    public Locatable getParent() {
+        return parent;
+    }
+
+    @Override
+    public Coord getLocalPosition() {
+        return new Coord(x, y);
+    }
+
+    @Override
+    public int getLocalX() {
+        return x;
+    }
+
+    @Override
+    public int getLocalY() {
+        return y;
+    }
+
+    @Override
+    public int getX() {
+        if (parent == null) return x;
+        return (int) (getCachedPosition() >> 32);
+    }
+
+    @Override
+    public int getY() {
+        if (parent == null) return y;
+        return (int) getCachedPosition();
+    }
+
+    /**
+     * Get the absolute position, and recompute it first if anything above this object has moved.
+     *
+     * @return The packed absolute position.
+     */
+    private long getCachedPosition() {
+        if (!dirty) return cachedPosition;
+        long position = ((long) (parent.getX() + x) << 32) | ((parent.getY() + y) & 0xFFFFFFFFL);
+        // Only cache the position if every object above this one will say when it moves
+        if (parent instanceof AbstractLocatable && ((AbstractLocatable) parent).isCached()) {
+            cachedPosition = position;
+            dirty = false;
+        }
+        return position;
+    }
+
+    /**
+     * Check if this object will be told when its absolute position changes. Objects without a parent always are.
+     */
+    private boolean isCached() {
+        return parent == null || !dirty;
+    }
+
+    private void markDirty() {
+        dirty = true;
+        // Objects without a parent are never marked clean, so always check the children
+        for (int i = 0; i < numChildren; i++) {
+            // A dirty child already has dirty children
+            if (!children[i].dirty) {
+                children[i].markDirty();
+            }
+        }
+    }
+
+    private void addChild(AbstractLocatable child) {
+        if (numChildren == children.length) {
+            children = Arrays.copyOf(children, Math.max(2, 2 * numChildren));
+        }
+        children[numChildren++] = child;
+    }
+
+    private void removeChild(AbstractLocatable child) {
+        for (int i = 0; i < numChildren; i++) {
+            if (children[i] == child) {
+                children[i] = children[--numChildren];
+                children[numChildren] = null;
+                return;
+            }
+        }
+    }
+}
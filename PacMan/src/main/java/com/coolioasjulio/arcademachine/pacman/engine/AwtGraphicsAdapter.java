@@ -41,4 +41,8 @@ public class AwtGraphicsAdapter implements Drawer {
     public void fillPolygon(int[] x, int[] y) {
         g.fillPolygon(x, y, x.length);
     }
+
+    public void translate(int dx, int dy) {
+        g.translate(dx, dy);
+    }
 }
@@ -4,13 +4,11 @@ import com.coolioasjulio.arcademachine.pacman.Utils;
 
 import java.util.Objects;
 
-public class BoxCollider implements Locatable {
-    private Locatable parent;
-    private int x, y, width, height;
+public class BoxCollider extends AbstractLocatable {
+    private int width, height;
 
     public BoxCollider(int x, int y, int width, int height) {
-        this.x = x;
-        this.y = y;
+        super(x, y);
         this.width = width;
         this.height = height;
     }
@@ -23,21 +21,6 @@ public class BoxCollider implements Locatable {
         return height;
     }
 
-    @Override
-    public void setParent(Locatable parent) {
-        this.parent = parent;
-    }
-
-    @Override
-    public Locatable getParent() {
-        return parent;
-    }
-
-    @Override
-    public Coord getLocalPosition() {
-        return new Coord(x, y);
-    }
-
     /**
      * Checks for collision against another BoxCollider.
      *
@@ -45,15 +28,25 @@ public class BoxCollider implements Locatable {
      * @return True if this collider intersects the other one, false otherwise.
      */
     public boolean intersects(BoxCollider c) {
-        int xmin1 = getX();
-        int xmax1 = getX() + width;
-        int ymin1 = getY();
-        int ymax1 = getY() + height;
+        return intersects(getX(), getY(), width, height, c.getX(), c.getY(), c.width, c.height);
+    }
+
+    /**
+     * Checks for collision between two boxes, without needing to create BoxCollider objects for them.
+     * Boxes that only share an edge don't intersect.
+     *
+     * @return True if the boxes intersect, false otherwise.
+     */
+    public static boolean intersects(int x1, int y1, int width1, int height1, int x2, int y2, int width2, int height2) {
+        int xmin1 = x1;
+        int xmax1 = x1 + width1;
+        int ymin1 = y1;
+        int ymax1 = y1 + height1;
 
-        int xmin2 = c.getX();
-        int xmax2 = c.getX() + c.width;
-        int ymin2 = c.getY();
-        int ymax2 = c.getY() + c.height;
+        int xmin2 = x2;
+        int xmax2 = x2 + width2;
+        int ymin2 = y2;
+        int ymax2 = y2 + height2;
 
         boolean intersectsX =
                 Utils.inRange(xmin1, xmin2, xmax2) ||
@@ -70,13 +63,13 @@ public class BoxCollider implements Locatable {
 
     @Override
     public int hashCode() {
-        return Objects.hash(x, y, width, height);
+        return Objects.hash(getLocalX(), getLocalY(), width, height);
     }
 
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof BoxCollider)) return false;
         BoxCollider c = (BoxCollider) o;
-        return c.x == x && c.y == y && c.width == width && c.height == height;
+        return c.getLocalX() == getLocalX() && c.getLocalY() == getLocalY() && c.width == width && c.height == height;
     }
 }
@@ -0,0 +1,126 @@
+package com.coolioasjulio.arcademachine.pacman.engine;
+
+/**
+ * The part of the world that is shown on the screen. The camera follows a target, but never shows anything outside
+ * the world. If the world is smaller than the viewport, the world is shown from its top left corner.
+ * Renderers can use the camera to skip everything that's off the screen, so drawing costs the same no matter how big the world is.
+ * The camera is read by the drawing thread while the game moves it, so all of its methods are synchronized.
+ */
+public class Camera {
+    private int viewportWidth, viewportHeight;
+    private int worldWidth, worldHeight;
+    private int targetX, targetY;
+    // The top left corner of the viewport in world pixels
+    private int x, y;
+
+    /**
+     * Create a camera that shows the whole world.
+     *
+     * @param worldWidth  The width of the world in pixels.
+     * @param worldHeight The height of the world in pixels.
+     */
+    public Camera(int worldWidth, int worldHeight) {
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+        viewportWidth = worldWidth;
+        viewportHeight = worldHeight;
+    }
+
+    /**
+     * Set the size of the area shown on the screen.
+     *
+     * @param width  The width of the viewport in pixels.
+     * @param height The height of the viewport in pixels.
+     */
+    public synchronized void setViewportSize(int width, int height) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Viewport size cannot be negative!");
+        }
+        viewportWidth = width;
+        viewportHeight = height;
+        update();
+    }
+
+    /**
+     * Set the size of the world, which the camera never looks outside of.
+     *
+     * @param width  The width of the world in pixels.
+     * @param height The height of the world in pixels.
+     */
+    public synchronized void setWorldSize(int width, int height) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("World size cannot be negative!");
+        }
+        worldWidth = width;
+        worldHeight = height;
+        update();
+    }
+
+    /**
+     * Center the camera on a point, as far as the edges of the world allow.
+     *
+     * @param x The x coordinate to center on, in world pixels.
+     * @param y The y coordinate to center on, in world pixels.
+     */
+    public synchronized void follow(int x, int y) {
+        targetX = x;
+        targetY = y;
+        update();
+    }
+
+    private void update() {
+        x = clamp(targetX - viewportWidth / 2, worldWidth - viewportWidth);
+        y = clamp(targetY - viewportHeight / 2, worldHeight - viewportHeight);
+    }
+
+    /**
+     * Get where the viewport would be if it followed a point, without moving the camera.
+     *
+     * @param x The x coordinate to center on, in world pixels.
+     * @param y The y coordinate to center on, in world pixels.
+     * @return The top left corner of the viewport in world pixels.
+     */
+    public synchronized Coord getPositionFor(int x, int y) {
+        return new Coord(clamp(x - viewportWidth / 2, worldWidth - viewportWidth),
+                clamp(y - viewportHeight / 2, worldHeight - viewportHeight));
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(value, max));
+    }
+
+    /**
+     * Get the left edge of the viewport.
+     *
+     * @return The x coordinate of the left edge in world pixels.
+     */
+    public synchronized int getX() {
+        return x;
+    }
+
+    /**
+     * Get the top edge of the viewport.
+     *
+     * @return The y coordinate of the top edge in world pixels.
+     */
+    public synchronized int getY() {
+        return y;
+    }
+
+    /**
+     * Get the position of the viewport. Both coordinates are read at once, so they always belong together.
+     *
+     * @return The top left corner of the viewport in world pixels.
+     */
+    public synchronized Coord getPosition() {
+        return new Coord(x, y);
+    }
+
+    public synchronized int getViewportWidth() {
+        return viewportWidth;
+    }
+
+    public synchronized int getViewportHeight() {
+        return viewportHeight;
+    }
+}
@@ -0,0 +1,210 @@
+package com.coolioasjulio.arcademachine.pacman.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds all the pairs of game objects whose colliders intersect. Objects are sorted into a uniform grid, so only objects
+ * that share a grid cell are tested against each other. Every object is on a collision layer, and has a mask of the layers
+ * it collides with. Two objects only collide if each one's mask includes the other one's layer.
+ * Contacts are found by {@link #step()}, which should be called once per tick after everything has moved.
+ */
+public class CollisionWorld {
+    /**
+     * Notified about every pair of objects that intersect.
+     */
+    public interface ContactListener {
+        /**
+         * Called once per step for each pair of intersecting objects.
+         *
+         * @param a The first object, which was added to the world before the second one.
+         * @param b The second object.
+         */
+        void onContact(GameObject a, GameObject b);
+    }
+
+    // Cell coordinates and object indices are packed into 21 bits each in the grid entries
+    private static final int BITS = 21;
+    private static final long FIELD_MASK = (1L << BITS) - 1;
+    private static final int CELL_OFFSET = 1 << (BITS - 1);
+    private static final int MAX_OBJECTS = 1 << BITS;
+
+    private final int cellSize;
+    private final List<ContactListener> listeners = new ArrayList<>();
+    private GameObject[] objects = new GameObject[16];
+    private int[] layers = new int[16];
+    private int[] masks = new int[16];
+    private int numObjects;
+    // The bounds of each collider for the current step, in pixels and in cells
+    private int[] minX = new int[16], minY = new int[16], width = new int[16], height = new int[16];
+    private int[] minCellX = new int[16], minCellY = new int[16];
+    private long[] entries = new long[64];
+    private int[] contacts = new int[32];
+    private int numContacts;
+
+    /**
+     * Create an empty collision world.
+     *
+     * @param cellSize The side length of a grid cell in pixels. This should be around the size of a typical object.
+     */
+    public CollisionWorld(int cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive!");
+        }
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Add an object to the world. Objects without a collider never collide with anything.
+     *
+     * @param obj   The object to add.
+     * @param layer The collision layers the object is on, as a bitmask.
+     * @param mask  The collision layers the object collides with, as a bitmask.
+     */
+    public void add(GameObject obj, int layer, int mask) {
+        if (numObjects == MAX_OBJECTS) {
+            throw new IllegalStateException("Too many objects in the collision world!");
+        }
+        if (numObjects == objects.length) {
+            int capacity = objects.length * 2;
+            objects = Arrays.copyOf(objects, capacity);
+            layers = Arrays.copyOf(layers, capacity);
+            masks = Arrays.copyOf(masks, capacity);
+            minX = new int[capacity];
+            minY = new int[capacity];
+            width = new int[capacity];
+            height = new int[capacity];
+            minCellX = new int[capacity];
+            minCellY = new int[capacity];
+        }
+        objects[numObjects] = obj;
+        layers[numObjects] = layer;
+        masks[numObjects] = mask;
+        numObjects++;
+    }
+
+    /**
+     * Remove an object from the world. Does nothing if the object isn't in the world.
+     *
+     * @param obj The object to remove.
+     */
+    public void remove(GameObject obj) {
+        for (int i = 0; i < numObjects; i++) {
+            if (objects[i] == obj) {
+                // Shift everything down to keep the order that objects were added in
+                System.arraycopy(objects, i + 1, objects, i, numObjects - i - 1);
+                System.arraycopy(layers, i + 1, layers, i, numObjects - i - 1);
+                System.arraycopy(masks, i + 1, masks, i, numObjects - i - 1);
+                objects[--numObjects] = null;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Remove all objects from the world. The contact listeners are kept.
+     */
+    public void clear() {
+        Arrays.fill(objects, 0, numObjects, null);
+        numObjects = 0;
+        numContacts = 0;
+    }
+
+    public int size() {
+        return numObjects;
+    }
+
+    public void addContactListener(ContactListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeContactListener(ContactListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Find all the intersecting pairs of objects, and notify the contact listeners about each pair once.
+     */
+    public void step() {
+        numContacts = 0;
+        int numEntries = 0;
+        for (int i = 0; i < numObjects; i++) {
+            BoxCollider collider = objects[i].getCollider();
+            if (collider == null || layers[i] == 0 || masks[i] == 0) continue;
+            minX[i] = collider.getX();
+            minY[i] = collider.getY();
+            width[i] = collider.getWidth();
+            height[i] = collider.getHeight();
+            int x0 = Math.floorDiv(minX[i], cellSize), x1 = Math.floorDiv(minX[i] + Math.max(width[i] - 1, 0), cellSize);
+            int y0 = Math.floorDiv(minY[i], cellSize), y1 = Math.floorDiv(minY[i] + Math.max(height[i] - 1, 0), cellSize);
+            minCellX[i] = x0;
+            minCellY[i] = y0;
+            int cells = (x1 - x0 + 1) * (y1 - y0 + 1);
+            if (numEntries + cells > entries.length) {
+                entries = Arrays.copyOf(entries, Math.max(entries.length * 2, numEntries + cells));
+            }
+            for (int cy = y0; cy <= y1; cy++) {
+                for (int cx = x0; cx <= x1; cx++) {
+                    entries[numEntries++] = pack(cx, cy, i);
+                }
+            }
+        }
+        // Sorting groups the entries by cell, and orders the objects in a cell by when they were added
+        Arrays.sort(entries, 0, numEntries);
+        for (int start = 0; start < numEntries; ) {
+            long cell = entries[start] >>> BITS;
+            int end = start + 1;
+            while (end < numEntries && entries[end] >>> BITS == cell) end++;
+            int cellX = (int) ((cell & FIELD_MASK) - CELL_OFFSET);
+            int cellY = (int) ((cell >>> BITS) - CELL_OFFSET);
+            for (int p = start; p < end; p++) {
+                int a = (int) (entries[p] & FIELD_MASK);
+                for (int q = p + 1; q < end; q++) {
+                    int b = (int) (entries[q] & FIELD_MASK);
+                    // Objects that share several cells are only tested in the first cell they share
+                    if (Math.max(minCellX[a], minCellX[b]) != cellX || Math.max(minCellY[a], minCellY[b]) != cellY) continue;
+                    if ((layers[a] & masks[b]) == 0 || (layers[b] & masks[a]) == 0) continue;
+                    if (BoxCollider.intersects(minX[a], minY[a], width[a], height[a], minX[b], minY[b], width[b], height[b])) {
+                        addContact(a, b);
+                    }
+                }
+            }
+            start = end;
+        }
+        for (int i = 0; i < numContacts; i++) {
+            GameObject a = objects[contacts[2 * i]];
+            GameObject b = objects[contacts[2 * i + 1]];
+            for (ContactListener listener : listeners) {
+                listener.onContact(a, b);
+            }
+        }
+    }
+
+    /**
+     * Get the number of contacts found by the last step.
+     *
+     * @return The number of intersecting pairs.
+     */
+    public int getNumContacts() {
+        return numContacts;
+    }
+
+    private void addContact(int a, int b) {
+        if (2 * numContacts + 2 > contacts.length) {
+            contacts = Arrays.copyOf(contacts, contacts.length * 2);
+        }
+        contacts[2 * numContacts] = a;
+        contacts[2 * numContacts + 1] = b;
+        numContacts++;
+    }
+
+    /**
+     * Pack a grid entry so that sorting entries groups them by cell first, and then by object index.
+     */
+    private static long pack(int cellX, int cellY, int index) {
+        long x = (cellX + CELL_OFFSET) & FIELD_MASK;
+        long y = (cellY + CELL_OFFSET) & FIELD_MASK;
+        return (y << (2 * BITS)) | (x << BITS) | index;
+    }
+}
@@ -22,4 +22,12 @@ public interface Drawer {
     void drawImage(BufferedImage image, int x, int y);
 
     void fillPolygon(int[] x, int[] y);
+
+    /**
+     * Move the origin of everything drawn afterwards. Translations add up, so a translation can be undone by translating back.
+     *
+     * @param dx The distance to move the origin right, in pixels.
+     * @param dy The distance to move the origin down, in pixels.
+     */
+    void translate(int dx, int dy);
 }
@@ -0,0 +1,319 @@
+package com.coolioasjulio.arcademachine.pacman.engine;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A store for lots of simple entities, like pellets, bonus items, or particles. Instead of being separate objects, entities
+ * are just indices into parallel arrays of positions, collider extents, active sprite indices, and flags. This keeps the data
+ * for an update, collision, or draw pass next to each other in memory. Entities don't have parents, so all positions are absolute.
+ * Ids of destroyed entities are reused, so an id must not be used after its entity is destroyed.
+ */
+public class EntityStore {
+    /**
+     * Entities with this flag are drawn by {@link #draw(Drawer, int, Renderer)}. Set by default.
+     */
+    public static final int VISIBLE = 1;
+    /**
+     * Entities with this flag are found by collision queries. Set by default.
+     */
+    public static final int SOLID = 1 << 1;
+    /**
+     * The lowest flag that isn't used by the store, so users can define their own flags from this one upwards.
+     */
+    public static final int FIRST_USER_FLAG = 1 << 2;
+    // Marks slots that hold an entity. This is never visible to users.
+    private static final int ALIVE = 1 << 31;
+
+    /**
+     * Draws a single entity.
+     */
+    public interface Renderer {
+        /**
+         * Draw an entity.
+         *
+         * @param d           The drawer to render with.
+         * @param id          The id of the entity.
+         * @param x           The x coordinate of the entity in pixels.
+         * @param y           The y coordinate of the entity in pixels.
+         * @param activeImage The active sprite index of the entity.
+         */
+        void draw(Drawer d, int id, int x, int y, int activeImage);
+    }
+
+    private int[] xs, ys;
+    private int[] colliderXs, colliderYs, colliderWidths, colliderHeights;
+    private int[] activeImages;
+    private int[] flags;
+    private int[] freeIds;
+    private int numFree;
+    // Every slot at or past this index has never been used
+    private int highWater;
+    private int size;
+
+    public EntityStore() {
+        this(64);
+    }
+
+    /**
+     * Create an empty entity store.
+     *
+     * @param capacity The number of entities to make room for. The store grows past this if needed.
+     */
+    public EntityStore(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive!");
+        }
+        xs = new int[capacity];
+        ys = new int[capacity];
+        colliderXs = new int[capacity];
+        colliderYs = new int[capacity];
+        colliderWidths = new int[capacity];
+        colliderHeights = new int[capacity];
+        activeImages = new int[capacity];
+        flags = new int[capacity];
+        freeIds = new int[capacity];
+    }
+
+    /**
+     * Create a new entity. It has no collider, and is visible and solid.
+     *
+     * @param x The x coordinate in pixels.
+     * @param y The y coordinate in pixels.
+     * @return The id of the new entity.
+     */
+    public int create(int x, int y) {
+        int id;
+        if (numFree > 0) {
+            id = freeIds[--numFree];
+        } else {
+            if (highWater == xs.length) {
+                grow();
+            }
+            id = highWater++;
+        }
+        xs[id] = x;
+        ys[id] = y;
+        colliderXs[id] = colliderYs[id] = colliderWidths[id] = colliderHeights[id] = 0;
+        activeImages[id] = 0;
+        flags[id] = ALIVE | VISIBLE | SOLID;
+        size++;
+        return id;
+    }
+
+    private void grow() {
+        int capacity = xs.length * 2;
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        colliderXs = Arrays.copyOf(colliderXs, capacity);
+        colliderYs = Arrays.copyOf(colliderYs, capacity);
+        colliderWidths = Arrays.copyOf(colliderWidths, capacity);
+        colliderHeights = Arrays.copyOf(colliderHeights, capacity);
+        activeImages = Arrays.copyOf(activeImages, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        freeIds = Arrays.copyOf(freeIds, capacity);
+    }
+
+    /**
+     * Destroy an entity. Its id may be given to a new entity afterwards.
+     *
+     * @param id The id of the entity.
+     */
+    public void destroy(int id) {
+        checkAlive(id);
+        flags[id] = 0;
+        freeIds[numFree++] = id;
+        size--;
+    }
+
+    /**
+     * Destroy every entity.
+     */
+    public void clear() {
+        Arrays.fill(flags, 0, highWater, 0);
+        highWater = 0;
+        numFree = 0;
+        size = 0;
+    }
+
+    public boolean isAlive(int id) {
+        return id >= 0 && id < highWater && (flags[id] & ALIVE) != 0;
+    }
+
+    /**
+     * Get the number of entities in the store.
+     *
+     * @return The number of entities that haven't been destroyed.
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getX(int id) {
+        return xs[id];
+    }
+
+    public int getY(int id) {
+        return ys[id];
+    }
+
+    public void setPosition(int id, int x, int y) {
+        xs[id] = x;
+        ys[id] = y;
+    }
+
+    public void move(int id, int dx, int dy) {
+        xs[id] += dx;
+        ys[id] += dy;
+    }
+
+    /**
+     * Set the collider of an entity. This works the same as a {@link BoxCollider} that is a child of the entity.
+     *
+     * @param id     The id of the entity.
+     * @param x      The x offset of the collider from the entity, in pixels.
+     * @param y      The y offset of the collider from the entity, in pixels.
+     * @param width  The width of the collider in pixels. A width of 0 means the entity has no collider.
+     * @param height The height of the collider in pixels.
+     */
+    public void setCollider(int id, int x, int y, int width, int height) {
+        colliderXs[id] = x;
+        colliderYs[id] = y;
+        colliderWidths[id] = width;
+        colliderHeights[id] = height;
+    }
+
+    public int getActiveImage(int id) {
+        return activeImages[id];
+    }
+
+    public void setActiveImage(int id, int activeImage) {
+        activeImages[id] = activeImage;
+    }
+
+    /**
+     * Get the flags of an entity.
+     *
+     * @param id The id of the entity.
+     * @return The flags, as a bitmask of {@link #VISIBLE}, {@link #SOLID}, and user flags.
+     */
+    public int getFlags(int id) {
+        return flags[id] & ~ALIVE;
+    }
+
+    /**
+     * Set the flags of an entity.
+     *
+     * @param id    The id of the entity.
+     * @param flags The flags, as a bitmask of {@link #VISIBLE}, {@link #SOLID}, and user flags.
+     */
+    public void setFlags(int id, int flags) {
+        checkAlive(id);
+        this.flags[id] = (flags & ~ALIVE) | ALIVE;
+    }
+
+    /**
+     * Checks if an entity has all of the given flags.
+     *
+     * @param id    The id of the entity.
+     * @param flags The flags to check for.
+     * @return True if the entity hasn't been destroyed and has all of the flags, false otherwise.
+     */
+    public boolean hasFlags(int id, int flags) {
+        return isAlive(id) && (this.flags[id] & flags) == flags;
+    }
+
+    /**
+     * Run an action on every entity, in order of id. This is meant for update passes. Entities may be created or destroyed
+     * by the action, but entities created during the pass may or may not be visited.
+     *
+     * @param action The action to run, given the id of each entity.
+     */
+    public void forEach(IntConsumer action) {
+        forEach(0, action);
+    }
+
+    /**
+     * Run an action on every entity that has all of the required flags, in order of id.
+     *
+     * @param requiredFlags The flags an entity needs to be visited.
+     * @param action        The action to run, given the id of each entity.
+     */
+    public void forEach(int requiredFlags, IntConsumer action) {
+        int mask = requiredFlags | ALIVE;
+        for (int id = 0; id < highWater; id++) {
+            if ((flags[id] & mask) == mask) {
+                action.accept(id);
+            }
+        }
+    }
+
+    /**
+     * Find every solid entity whose collider intersects a box. Boxes that only share an edge don't intersect, like
+     * {@link BoxCollider#intersects(BoxCollider)}. Entities without a collider are never found.
+     *
+     * @param x      The x coordinate of the box in pixels.
+     * @param y      The y coordinate of the box in pixels.
+     * @param width  The width of the box in pixels.
+     * @param height The height of the box in pixels.
+     * @param action The action to run, given the id of each intersecting entity.
+     * @return The number of intersecting entities.
+     */
+    public int forEachIntersecting(int x, int y, int width, int height, IntConsumer action) {
+        int count = 0;
+        int mask = SOLID | ALIVE;
+        for (int id = 0; id < highWater; id++) {
+            if ((flags[id] & mask) == mask && colliderWidths[id] > 0 &&
+                    BoxCollider.intersects(xs[id] + colliderXs[id], ys[id] + colliderYs[id], colliderWidths[id], colliderHeights[id],
+                            x, y, width, height)) {
+                count++;
+                action.accept(id);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Find every solid entity whose collider intersects a collider.
+     *
+     * @param collider The collider to check against.
+     * @param action   The action to run, given the id of each intersecting entity.
+     * @return The number of intersecting entities.
+     */
+    public int forEachIntersecting(BoxCollider collider, IntConsumer action) {
+        return forEachIntersecting(collider.getX(), collider.getY(), collider.getWidth(), collider.getHeight(), action);
+    }
+
+    /**
+     * Checks if the colliders of two entities intersect. Entities without a collider don't intersect anything.
+     *
+     * @return True if the colliders intersect, false otherwise.
+     */
+    public boolean intersects(int a, int b) {
+        return colliderWidths[a] > 0 && colliderWidths[b] > 0 &&
+                BoxCollider.intersects(xs[a] + colliderXs[a], ys[a] + colliderYs[a], colliderWidths[a], colliderHeights[a],
+                        xs[b] + colliderXs[b], ys[b] + colliderYs[b], colliderWidths[b], colliderHeights[b]);
+    }
+
+    /**
+     * Draw every visible entity that has all of the required flags, in order of id.
+     *
+     * @param d             The drawer to render with.
+     * @param requiredFlags Any flags an entity needs to be drawn, on top of {@link #VISIBLE}.
+     * @param renderer      Draws each entity.
+     */
+    public void draw(Drawer d, int requiredFlags, Renderer renderer) {
+        int mask = requiredFlags | VISIBLE | ALIVE;
+        for (int id = 0; id < highWater; id++) {
+            if ((flags[id] & mask) == mask) {
+                renderer.draw(d, id, xs[id], ys[id], activeImages[id]);
+            }
+        }
+    }
+
+    private void checkAlive(int id) {
+        if (!isAlive(id)) {
+            throw new IllegalArgumentException("No entity with id " + id + "!");
+        }
+    }
+}
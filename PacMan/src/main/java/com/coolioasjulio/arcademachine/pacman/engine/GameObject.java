@@ -1,19 +1,29 @@
 package com.coolioasjulio.arcademachine.pacman.engine;
 
+import com.coolioasjulio.arcademachine.pacman.Direction;
 import com.coolioasjulio.arcademachine.pacman.Utils;
 
 import java.util.Arrays;
 
-public class GameObject implements Locatable {
-    private int x, y;
+public class GameObject extends AbstractLocatable {
+    /**
+     * Positions are in whole pixels, but movement is kept track of in fractions of a pixel. This is the number of fractions in a pixel.
+     */
+    public static final int SUBPIXELS = 256;
+
     private Sprite[] sprites;
     private BoxCollider collider;
-    private Locatable parent;
     private int activeSprite;
+    // The position at the start of the tick, for drawing the object partway through its movement
+    private int prevX, prevY;
+    // How far the object has moved past its position, in fractions of a pixel, and which way
+    private int subPixels;
+    private Direction subPixelDirection;
 
     public GameObject(int x, int y, BoxCollider collider, Sprite... sprites) {
-        this.x = x;
-        this.y = y;
+        super(x, y);
+        prevX = x;
+        prevY = y;
         this.sprites = sprites;
         this.collider = collider;
         if (collider != null) this.collider.setParent(this);
@@ -41,13 +51,75 @@ public class GameObject implements Locatable {
         return Utils.inRange(activeSprite, 0, sprites.length) ? sprites[activeSprite] : null;
     }
 
-    public Coord getLocalPosition() {
-        return new Coord(x, y);
+    /**
+     * Set the position relative to the parent object. Any leftover fraction of a pixel from moving is dropped, since it was
+     * relative to the old position.
+     *
+     * @param x The local x-coordinate in pixels.
+     * @param y The local y-coordinate in pixels.
+     */
+    @Override
+    public void setLocalPosition(int x, int y) {
+        super.setLocalPosition(x, y);
+        subPixels = 0;
+        subPixelDirection = null;
     }
 
-    public void setLocalPosition(int x, int y) {
-        this.x = x;
-        this.y = y;
+    /**
+     * Remember the current position as where the object's movement starts. This is called at the start of every tick, so a
+     * renderer can draw the object anywhere between where it was and where it is. It should also be called right after the
+     * object teleports, so it isn't drawn sliding across the level.
+     */
+    public void savePosition() {
+        prevX = getX();
+        prevY = getY();
+    }
+
+    /**
+     * Get the x coordinate saved by the last call to {@link #savePosition()}.
+     *
+     * @return The absolute x coordinate at the start of the tick, in pixels.
+     */
+    public int getPrevX() {
+        return prevX;
+    }
+
+    /**
+     * Get the y coordinate saved by the last call to {@link #savePosition()}.
+     *
+     * @return The absolute y coordinate at the start of the tick, in pixels.
+     */
+    public int getPrevY() {
+        return prevY;
+    }
+
+    /**
+     * Get the part of a pixel that the object has moved but that isn't in its position yet.
+     *
+     * @return The leftover movement, in 1/{@link #SUBPIXELS} of a pixel.
+     */
+    public int getSubPixels() {
+        return subPixels;
+    }
+
+    /**
+     * Get the direction that the leftover movement from {@link #getSubPixels()} is in.
+     *
+     * @return The direction of the last move, or null if there is no leftover movement.
+     */
+    public Direction getSubPixelDirection() {
+        return subPixelDirection;
+    }
+
+    /**
+     * Set the part of a pixel that the object has moved but that isn't in its position yet.
+     *
+     * @param subPixels The leftover movement, in 1/{@link #SUBPIXELS} of a pixel.
+     * @param direction The direction the object moved in. The leftover only counts towards moves in the same direction.
+     */
+    public void setSubPixels(int subPixels, Direction direction) {
+        this.subPixels = subPixels;
+        subPixelDirection = subPixels == 0 ? null : direction;
     }
 
     public void draw(Drawer d) {
@@ -57,6 +129,17 @@ public class GameObject implements Locatable {
         }
     }
 
+    /**
+     * Animate all the sprites of the game object, so switching between them doesn't restart the animation.
+     *
+     * @param time The game time in seconds.
+     */
+    public void animate(double time) {
+        for (Sprite sprite : sprites) {
+            sprite.animate(time);
+        }
+    }
+
     public boolean intersects(BoxCollider c) {
         return collider != null && collider.intersects(c);
     }
@@ -67,18 +150,10 @@ public class GameObject implements Locatable {
     }
 
     public void moveX(int dx) {
-        x += dx;
+        setLocalPosition(getLocalX() + dx, getLocalY());
     }
 
     public void moveY(int dy) {
-        y += dy;
-    }
-
-    public void setParent(Locatable parent) {
-        this.parent = parent;
-    }
-
-    public Locatable getParent() {
-        return parent;
+        setLocalPosition(getLocalX(), getLocalY() + dy);
     }
 }
@@ -17,7 +17,7 @@ public class ImageSprite extends Sprite {
         return spriteSheet.length;
     }
 
-    public void drawActiveImage(Drawer d) {
-        d.drawImage(spriteSheet[getActiveImageIndex()], getX(), getY());
+    public void drawImage(Drawer d, int index, int x, int y) {
+        d.drawImage(spriteSheet[index], x, y);
     }
 }
@@ -0,0 +1,33 @@
+package com.coolioasjulio.arcademachine.pacman.engine;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+
+/**
+ * A drawer that doesn't draw anything. This is used to run games without a display.
+ */
+public class NullDrawer implements Drawer {
+    public void drawOval(int x, int y, int width, int height) {
+    }
+
+    public void drawRect(int x, int y, int width, int height) {
+    }
+
+    public void fillOval(int x, int y, int width, int height) {
+    }
+
+    public void fillRect(int x, int y, int width, int height) {
+    }
+
+    public void setColor(Color c) {
+    }
+
+    public void drawImage(BufferedImage image, int x, int y) {
+    }
+
+    public void fillPolygon(int[] x, int[] y) {
+    }
+
+    public void translate(int dx, int dy) {
+    }
+}
@@ -0,0 +1,354 @@
+package com.coolioasjulio.arcademachine.pacman.engine;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * A drawer that records what is drawn instead of drawing it right away, so it can be replayed on another drawer with fewer
+ * color changes and fewer shapes.
+ * <p>
+ * Shapes with the same color and kind are grouped into batches. A shape can join an earlier batch as long as it doesn't
+ * overlap anything drawn in between, so whatever was on top is still on top after the replay. Rectangles in a batch that
+ * line up edge to edge, like the walls of a level, are merged into bigger rectangles.
+ * <p>
+ * Everything is recorded in arrays that are reused after {@link #reset()}, so recording a frame doesn't allocate once the
+ * arrays are big enough.
+ */
+public class RecordingDrawer implements Drawer {
+    private static final int FILL_RECT = 0, FILL_OVAL = 1, DRAW_RECT = 2, DRAW_OVAL = 3, FILL_POLYGON = 4, DRAW_IMAGE = 5;
+    // Rectangles that were merged into another one, which aren't drawn by themselves
+    private static final int MERGED = -1;
+    // The fields of a shape. DATA is the index of the image, or where the points of the polygon start.
+    private static final int TYPE = 0, COLOR = 1, X = 2, Y = 3, WIDTH = 4, HEIGHT = 5, DATA = 6, NEXT = 7, STRIDE = 8;
+    // The fields of a batch. The bounds cover every shape in the batch, and the max coordinates are exclusive.
+    private static final int B_TYPE = 0, B_COLOR = 1, FIRST = 2, LAST = 3, MIN_X = 4, MIN_Y = 5, MAX_X = 6, MAX_Y = 7,
+            B_STRIDE = 8;
+    // Shapes drawn before the first color is set, and images, which don't use the color
+    private static final int NO_COLOR = -1;
+    // How many batches back a shape can look for one to join. This keeps recording linear in the number of shapes.
+    private static final int LOOKBACK = 16;
+
+    private int[] shapes = new int[64 * STRIDE];
+    private int numShapes;
+    private int[] batches = new int[16 * B_STRIDE];
+    private int numBatches;
+    private Color[] colors = new Color[8];
+    private int numColors;
+    private int color = NO_COLOR;
+    private BufferedImage[] images = new BufferedImage[4];
+    private int numImages;
+    private int[] points = new int[64];
+    private int numPoints;
+    private int translateX, translateY;
+
+    // Used while replaying
+    private int[] mergeTable = new int[64];
+    private int[][] polygonXs = new int[0][], polygonYs = new int[0][];
+
+    public void drawOval(int x, int y, int width, int height) {
+        if (width < 0 || height < 0) return;
+        add(DRAW_OVAL, x, y, width, height, 0, width + 1, height + 1);
+    }
+
+    public void drawRect(int x, int y, int width, int height) {
+        if (width < 0 || height < 0) return;
+        add(DRAW_RECT, x, y, width, height, 0, width + 1, height + 1);
+    }
+
+    public void fillOval(int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) return;
+        add(FILL_OVAL, x, y, width, height, 0, width, height);
+    }
+
+    public void fillRect(int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) return;
+        add(FILL_RECT, x, y, width, height, 0, width, height);
+    }
+
+    public void setColor(Color c) {
+        if (c == null) return;
+        for (int i = 0; i < numColors; i++) {
+            if (colors[i].equals(c)) {
+                color = i;
+                return;
+            }
+        }
+        if (numColors == colors.length) {
+            colors = Arrays.copyOf(colors, 2 * numColors);
+        }
+        colors[numColors] = c;
+        color = numColors++;
+    }
+
+    public void drawImage(BufferedImage image, int x, int y) {
+        if (image == null) return;
+        if (numImages == images.length) {
+            images = Arrays.copyOf(images, 2 * numImages);
+        }
+        images[numImages] = image;
+        add(DRAW_IMAGE, x, y, 0, 0, numImages++, image.getWidth(), image.getHeight());
+    }
+
+    public void fillPolygon(int[] x, int[] y) {
+        int n = x.length;
+        if (n == 0) return;
+        if (numPoints + 2 * n + 1 > points.length) {
+            points = Arrays.copyOf(points, Math.max(2 * points.length, numPoints + 2 * n + 1));
+        }
+        // The points are copied, since the caller may reuse the arrays
+        int start = numPoints;
+        points[numPoints++] = n;
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            int px = x[i] + translateX, py = y[i] + translateY;
+            points[numPoints + i] = px;
+            points[numPoints + n + i] = py;
+            minX = Math.min(minX, px);
+            minY = Math.min(minY, py);
+            maxX = Math.max(maxX, px);
+            maxY = Math.max(maxY, py);
+        }
+        numPoints += 2 * n;
+        // The points are already translated, so the bounds are too
+        add(FILL_POLYGON, minX - translateX, minY - translateY, 0, 0, start, maxX - minX + 1, maxY - minY + 1);
+    }
+
+    public void translate(int dx, int dy) {
+        translateX += dx;
+        translateY += dy;
+    }
+
+    /**
+     * Draw everything that was recorded since the last reset. The recording is kept, so it can be replayed again.
+     * Afterwards, the drawer has the color that was set last, as if everything had been drawn on it directly.
+     *
+     * @param d The drawer to draw on.
+     */
+    public void replay(Drawer d) {
+        int current = NO_COLOR;
+        for (int b = 0; b < numBatches; b++) {
+            int i = b * B_STRIDE;
+            int type = batches[i + B_TYPE];
+            int c = batches[i + B_COLOR];
+            if (type == FILL_RECT) {
+                mergeStacked(b);
+            }
+            if (type != DRAW_IMAGE && c != NO_COLOR && c != current) {
+                d.setColor(colors[c]);
+                current = c;
+            }
+            for (int s = batches[i + FIRST]; s != -1; s = shapes[s * STRIDE + NEXT]) {
+                replayShape(d, s);
+            }
+        }
+        if (color != NO_COLOR && color != current) {
+            d.setColor(colors[color]);
+        }
+    }
+
+    /**
+     * Forget everything that was recorded, including the color and the translation.
+     */
+    public void reset() {
+        numShapes = 0;
+        numBatches = 0;
+        numPoints = 0;
+        // Don't keep the images and colors from being garbage collected
+        Arrays.fill(images, 0, numImages, null);
+        numImages = 0;
+        Arrays.fill(colors, 0, numColors, null);
+        numColors = 0;
+        color = NO_COLOR;
+        translateX = 0;
+        translateY = 0;
+    }
+
+    /**
+     * Record a shape, in a batch with the others of the same kind and color if it can be.
+     *
+     * @param data         The index of the image or where the points of the polygon start, for those kinds of shapes.
+     * @param boundsWidth  The width of the area the shape touches, in pixels.
+     * @param boundsHeight The height of the area the shape touches, in pixels.
+     */
+    private void add(int type, int x, int y, int width, int height, int data, int boundsWidth, int boundsHeight) {
+        x += translateX;
+        y += translateY;
+        int minX = x, minY = y, maxX = x + boundsWidth, maxY = y + boundsHeight;
+        int c = type == DRAW_IMAGE ? NO_COLOR : color;
+        int batch = findBatch(type, c, minX, minY, maxX, maxY);
+        if (batch != -1 && type == FILL_RECT) {
+            // Rectangles are usually drawn left to right, so try to extend the last one in the batch
+            int last = batches[batch * B_STRIDE + LAST] * STRIDE;
+            if (shapes[last + TYPE] == FILL_RECT && shapes[last + Y] == y && shapes[last + HEIGHT] == height &&
+                    shapes[last + X] + shapes[last + WIDTH] == x) {
+                shapes[last + WIDTH] += width;
+                growBatch(batch, minX, minY, maxX, maxY);
+                return;
+            }
+        }
+
+        if ((numShapes + 1) * STRIDE > shapes.length) {
+            shapes = Arrays.copyOf(shapes, 2 * shapes.length);
+        }
+        int s = numShapes++;
+        int o = s * STRIDE;
+        shapes[o + TYPE] = type;
+        shapes[o + COLOR] = c;
+        shapes[o + X] = x;
+        shapes[o + Y] = y;
+        shapes[o + WIDTH] = width;
+        shapes[o + HEIGHT] = height;
+        shapes[o + DATA] = data;
+        shapes[o + NEXT] = -1;
+
+        if (batch == -1) {
+            if ((numBatches + 1) * B_STRIDE > batches.length) {
+                batches = Arrays.copyOf(batches, 2 * batches.length);
+            }
+            batch = numBatches++;
+            int i = batch * B_STRIDE;
+            batches[i + B_TYPE] = type;
+            batches[i + B_COLOR] = c;
+            batches[i + FIRST] = s;
+            batches[i + LAST] = s;
+            batches[i + MIN_X] = minX;
+            batches[i + MIN_Y] = minY;
+            batches[i + MAX_X] = maxX;
+            batches[i + MAX_Y] = maxY;
+        } else {
+            int i = batch * B_STRIDE;
+            shapes[batches[i + LAST] * STRIDE + NEXT] = s;
+            batches[i + LAST] = s;
+            growBatch(batch, minX, minY, maxX, maxY);
+        }
+    }
+
+    /**
+     * Find a batch that a shape can be added to without changing what ends up on top.
+     *
+     * @return The index of the batch, or -1 if the shape needs a new one.
+     */
+    private int findBatch(int type, int c, int minX, int minY, int maxX, int maxY) {
+        for (int b = numBatches - 1; b >= Math.max(0, numBatches - LOOKBACK); b--) {
+            int i = b * B_STRIDE;
+            if (batches[i + B_TYPE] == type && batches[i + B_COLOR] == c) return b;
+            // The shape can't be moved before something that it overlaps
+            if (minX < batches[i + MAX_X] && batches[i + MIN_X] < maxX &&
+                    minY < batches[i + MAX_Y] && batches[i + MIN_Y] < maxY) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private void growBatch(int batch, int minX, int minY, int maxX, int maxY) {
+        int i = batch * B_STRIDE;
+        batches[i + MIN_X] = Math.min(batches[i + MIN_X], minX);
+        batches[i + MIN_Y] = Math.min(batches[i + MIN_Y], minY);
+        batches[i + MAX_X] = Math.max(batches[i + MAX_X], maxX);
+        batches[i + MAX_Y] = Math.max(batches[i + MAX_Y], maxY);
+    }
+
+    /**
+     * Merge the rectangles in a batch that are stacked right on top of each other and have the same left and right edges.
+     * The rectangles in a batch all have the same color, so it doesn't matter which order they're drawn in.
+     */
+    private void mergeStacked(int batch) {
+        int count = 0;
+        for (int s = batches[batch * B_STRIDE + FIRST]; s != -1; s = shapes[s * STRIDE + NEXT]) {
+            count++;
+        }
+        if (count < 2) return;
+        // A hash table of rectangles by their left edge, width and bottom edge. There are at most as many entries as
+        // rectangles, so half the table is always empty. Entries go stale when a rectangle grows, so they're checked.
+        int capacity = Integer.highestOneBit(2 * count - 1) << 1;
+        if (mergeTable.length < capacity) {
+            mergeTable = new int[capacity];
+        } else {
+            Arrays.fill(mergeTable, 0, capacity, 0);
+        }
+        int mask = capacity - 1;
+        for (int s = batches[batch * B_STRIDE + FIRST]; s != -1; s = shapes[s * STRIDE + NEXT]) {
+            int o = s * STRIDE;
+            if (shapes[o + TYPE] != FILL_RECT) continue;
+            int x = shapes[o + X], y = shapes[o + Y], width = shapes[o + WIDTH];
+            int above = -1;
+            for (int slot = hash(x, width, y) & mask; mergeTable[slot] != 0; slot = (slot + 1) & mask) {
+                int a = (mergeTable[slot] - 1) * STRIDE;
+                if (shapes[a + TYPE] == FILL_RECT && shapes[a + X] == x && shapes[a + WIDTH] == width &&
+                        shapes[a + Y] + shapes[a + HEIGHT] == y) {
+                    above = mergeTable[slot] - 1;
+                    break;
+                }
+            }
+            int merged = s;
+            if (above != -1) {
+                shapes[above * STRIDE + HEIGHT] += shapes[o + HEIGHT];
+                shapes[o + TYPE] = MERGED;
+                merged = above;
+            }
+            int m = merged * STRIDE;
+            int slot = hash(x, width, shapes[m + Y] + shapes[m + HEIGHT]) & mask;
+            while (mergeTable[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            mergeTable[slot] = merged + 1;
+        }
+    }
+
+    private static int hash(int x, int width, int bottom) {
+        int h = x * 0x9E3779B1 + width * 0x85EBCA6B + bottom * 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+
+    private void replayShape(Drawer d, int s) {
+        int o = s * STRIDE;
+        int x = shapes[o + X], y = shapes[o + Y], width = shapes[o + WIDTH], height = shapes[o + HEIGHT];
+        switch (shapes[o + TYPE]) {
+            case FILL_RECT:
+                d.fillRect(x, y, width, height);
+                break;
+
+            case FILL_OVAL:
+                d.fillOval(x, y, width, height);
+                break;
+
+            case DRAW_RECT:
+                d.drawRect(x, y, width, height);
+                break;
+
+            case DRAW_OVAL:
+                d.drawOval(x, y, width, height);
+                break;
+
+            case FILL_POLYGON:
+                replayPolygon(d, shapes[o + DATA]);
+                break;
+
+            case DRAW_IMAGE:
+                d.drawImage(images[shapes[o + DATA]], x, y);
+                break;
+
+            default:
+                // Merged into another rectangle
+                break;
+        }
+    }
+
+    private void replayPolygon(Drawer d, int start) {
+        int n = points[start];
+        // The drawer takes the number of points from the length of the arrays, so keep arrays of each length around
+        if (n >= polygonXs.length) {
+            polygonXs = Arrays.copyOf(polygonXs, n + 1);
+            polygonYs = Arrays.copyOf(polygonYs, n + 1);
+        }
+        if (polygonXs[n] == null) {
+            polygonXs[n] = new int[n];
+            polygonYs[n] = new int[n];
+        }
+        System.arraycopy(points, start + 1, polygonXs[n], 0, n);
+        System.arraycopy(points, start + 1 + n, polygonYs[n], 0, n);
+        d.fillPolygon(polygonXs[n], polygonYs[n]);
+    }
+}
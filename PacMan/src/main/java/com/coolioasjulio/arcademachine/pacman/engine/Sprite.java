@@ -1,124 +1,21 @@
 package com.coolioasjulio.arcademachine.pacman.engine;
 
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Map;
+public abstract class Sprite extends AbstractLocatable {
 
-public abstract class Sprite implements Locatable {
-
-    private static SpriteAnimationManager manager;
-
-    /**
-     * This is a singleton manager for sprite animations. It schedules sprite changes and cycles through spritesheets.
-     * The timing for animation isn't super precise and should not be depended on.
-     */
-    private static class SpriteAnimationManager {
-        private Map<Sprite, Long> nextAnimationTime = Collections.synchronizedMap(new HashMap<>());
-        private Thread animationThread;
-
-        private void animationTask() {
-            while (!Thread.interrupted()) {
-                // Get the sprite with the soonest time until the next sprite change
-                Sprite nextSprite = nextAnimationTime.keySet().stream()
-                        .min(Comparator.comparing(nextAnimationTime::get)).orElse(null);
-                // If the map is empty, stop the task
-                if (nextSprite == null) {
-                    stop();
-                    break;
-                }
-                // Sleep until the sprite change
-                long sleepTime = nextAnimationTime.get(nextSprite) - System.currentTimeMillis();
-                if (sleepTime > 0) {
-                    try {
-                        Thread.sleep(sleepTime);
-                    } catch (InterruptedException e) {
-                        break;
-                    }
-                }
-                // Advance by one in the spritesheet and schedule the next sprite change
-                nextAnimationTime.put(nextSprite, System.currentTimeMillis() + nextSprite.getPeriodMillis());
-                nextSprite.nextImage();
-            }
-        }
-
-        private synchronized void stop() {
-            animationThread.interrupt();
-            animationThread = null;
-        }
-
-        private synchronized void start() {
-            animationThread = new Thread(this::animationTask);
-            animationThread.setDaemon(true);
-            animationThread.start();
-        }
-
-        /**
-         * Add a sprite to the animation manager. No-op if the sprite's FPS is 0.
-         *
-         * @param sprite The sprite to be animated.
-         */
-        public synchronized void addSprite(Sprite sprite) {
-            if (sprite.getFPS() == 0) return;
-            nextAnimationTime.put(sprite, System.currentTimeMillis() + sprite.getPeriodMillis());
-            if (nextAnimationTime.size() == 1) {
-                start();
-            }
-        }
-
-        /**
-         * Remove a sprite from the animation manager. This sprite will no longer be animated.
-         *
-         * @param sprite The sprite to remove.
-         */
-        public synchronized void removeSprite(Sprite sprite) {
-            nextAnimationTime.remove(sprite);
-            if (nextAnimationTime.isEmpty()) {
-                stop();
-            }
-        }
-    }
-
-    /**
-     * Add a sprite to the animation manager. No-op if the sprite's FPS is 0.
-     *
-     * @param sprite The sprite to be animated.
-     */
-    public static void addSprite(Sprite sprite) {
-        if (manager == null) {
-            manager = new SpriteAnimationManager();
-        }
-        manager.addSprite(sprite);
-    }
-
-    /**
-     * Remove a sprite from the animation manager. This sprite will no longer be animated.
-     *
-     * @param sprite The sprite to remove.
-     */
-    public static void removeSprite(Sprite sprite) {
-        if (manager != null) {
-            manager.removeSprite(sprite);
-        }
-    }
-
-    private Locatable parent;
-    private int x, y;
-    private int activeImage;
+    // Read by the rendering thread, so changes have to be visible to it
+    private volatile int activeImage;
     private int fps;
 
     /**
-     * Create a new Sprite object and start animating it.
+     * Create a new Sprite object. The sprite is animated by calling {@link #animate(double)} on every tick.
      *
      * @param x   The relative x position of the sprite.
      * @param y   The relative y position of the sprite.
      * @param fps The fps of the animation. If no animation is desired, set to 0.
      */
     public Sprite(int x, int y, int fps) {
-        this.x = x;
-        this.y = y;
+        super(x, y);
         this.fps = fps;
-        addSprite(this);
     }
 
     /**
@@ -133,7 +30,20 @@ public abstract class Sprite implements Locatable {
      *
      * @param d The drawer object to use for rendering.
      */
-    abstract public void drawActiveImage(Drawer d);
+    public void drawActiveImage(Drawer d) {
+        drawImage(d, getDrawIndex(), getX(), getY());
+    }
+
+    /**
+     * Render an image of the sprite at a position. This must not read anything about the sprite that changes while the
+     * game is running, so a sprite can be drawn from a snapshot on another thread while the game keeps moving it.
+     *
+     * @param d     The drawer object to use for rendering.
+     * @param index The image to draw, as returned by {@link #getDrawIndex()}.
+     * @param x     The x coordinate to draw at, in pixels.
+     * @param y     The y coordinate to draw at, in pixels.
+     */
+    abstract public void drawImage(Drawer d, int index, int x, int y);
 
     /**
      * Get the current index in the spritesheet.
@@ -144,6 +54,16 @@ public abstract class Sprite implements Locatable {
         return activeImage;
     }
 
+    /**
+     * Get the index that {@link #drawImage(Drawer, int, int, int)} needs to draw the sprite the way it looks right now.
+     * This is the active image, unless the look of the sprite also depends on something other than the animation.
+     *
+     * @return The index of the image to draw.
+     */
+    public int getDrawIndex() {
+        return activeImage;
+    }
+
     /**
      * The time in milliseconds between each sprite change.
      *
@@ -162,22 +82,22 @@ public abstract class Sprite implements Locatable {
         return fps;
     }
 
+    /**
+     * Set the index in the spritesheet from the game clock. Since the index only depends on the time, the animation
+     * is the same no matter how often this is called. No-op if the sprite's FPS is 0.
+     *
+     * @param time The game time in seconds.
+     */
+    public void animate(double time) {
+        int numImages = numImages();
+        if (fps == 0 || numImages == 0) return;
+        activeImage = (int) Math.floorMod((long) Math.floor(time * fps), (long) numImages);
+    }
+
     /**
      * Advance one in the spritesheet. Wrap around to the beginning if at the end.
      */
     public void nextImage() {
         activeImage = (activeImage + 1) % numImages();
     }
-
-    public void setParent(Locatable parent) {
-        this.parent = parent;
-    }
-
-    public Locatable getParent() {
-        return parent;
-    }
-
-    public Coord getLocalPosition() {
-        return new Coord(x, y);
-    }
 }
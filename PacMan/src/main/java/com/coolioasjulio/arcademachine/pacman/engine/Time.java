@@ -1,24 +1,189 @@
 package com.coolioasjulio.arcademachine.pacman.engine;
 
+/**
+ * The game clock. All game timers should be based on this clock instead of the system clock, so that pausing and scaling
+ * time affects everything equally. Game time only advances while the clock isn't paused, at the rate set by the time scale.
+ * The source of the time is pluggable, so tests and simulations can use a {@link VirtualClock} to advance time instantly.
+ * Every game has its own clock, so games running side by side don't affect each other's time.
+ */
 public class Time {
-    private static long startTime;
-    private static long prevTime, currTime;
+    /**
+     * A source of time. The readings are in nanoseconds, and only differences between readings are meaningful.
+     */
+    public interface Clock {
+        long nanoTime();
+    }
+
+    /**
+     * The default clock, backed by {@link System#nanoTime()}.
+     */
+    public static final Clock SYSTEM_CLOCK = System::nanoTime;
+
+    /**
+     * A clock that only advances when told to.
+     */
+    public static class VirtualClock implements Clock {
+        private long nanos;
+
+        /**
+         * Advance the clock.
+         *
+         * @param seconds The number of seconds to advance by. Must not be negative.
+         */
+        public synchronized void advance(double seconds) {
+            advanceNanos(Math.round(seconds * 1e9));
+        }
+
+        /**
+         * Advance the clock.
+         *
+         * @param nanos The number of nanoseconds to advance by. Must not be negative.
+         */
+        public synchronized void advanceNanos(long nanos) {
+            if (nanos < 0) {
+                throw new IllegalArgumentException("Time can't go backwards!");
+            }
+            this.nanos += nanos;
+        }
+
+        @Override
+        public synchronized long nanoTime() {
+            return nanos;
+        }
+    }
+
+    private Clock clock;
+    private double timeScale = 1;
+    private boolean paused;
+    // The game time is accumulated, so changing the time scale or pausing doesn't make it jump
+    private long lastClockTime;
+    private long gameTime;
+    private long prevTime, currTime;
 
-    public static void start() {
-        startTime = prevTime = currTime = System.currentTimeMillis();
+    /**
+     * Create a game clock that reads the system clock.
+     */
+    public Time() {
+        this(SYSTEM_CLOCK);
     }
 
-    public static void update() {
+    /**
+     * Create a game clock.
+     *
+     * @param clock The clock to read the time from.
+     */
+    public Time(Clock clock) {
+        setClock(clock);
+    }
+
+    /**
+     * Set the source of time. This should be called before {@link #start()}.
+     *
+     * @param clock The clock to read the time from.
+     */
+    public synchronized void setClock(Clock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null!");
+        }
+        this.clock = clock;
+        lastClockTime = clock.nanoTime();
+    }
+
+    public synchronized Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Set the rate that game time passes at, relative to the clock.
+     *
+     * @param timeScale The time scale. 1 is real time, 0.5 is half speed, 2 is double speed.
+     */
+    public synchronized void setTimeScale(double timeScale) {
+        if (timeScale < 0) {
+            throw new IllegalArgumentException("Time scale cannot be negative!");
+        }
+        sync();
+        this.timeScale = timeScale;
+    }
+
+    public synchronized double getTimeScale() {
+        return timeScale;
+    }
+
+    /**
+     * Stop game time from passing until {@link #resume()} is called.
+     */
+    public synchronized void pause() {
+        sync();
+        paused = true;
+    }
+
+    /**
+     * Let game time pass again after {@link #pause()}. The time spent paused is skipped.
+     */
+    public synchronized void resume() {
+        sync();
+        paused = false;
+    }
+
+    public synchronized boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Restart the game time at 0.
+     */
+    public synchronized void start() {
+        lastClockTime = clock.nanoTime();
+        gameTime = prevTime = currTime = 0;
+    }
+
+    /**
+     * Start a new tick. This updates {@link #time()} and {@link #deltaTime()}.
+     */
+    public synchronized void update() {
         prevTime = currTime;
-        currTime = System.currentTimeMillis();
+        currTime = sync();
     }
 
-    public static double deltaTime() {
-        return (currTime - prevTime) / 1000.0;
+    /**
+     * Get the elapsed game time between the last two ticks.
+     *
+     * @return The time in seconds between the last two calls to {@link #update()}.
+     */
+    public synchronized double deltaTime() {
+        return (currTime - prevTime) / 1e9;
     }
 
-    public static double elapsedTime() {
-        return (System.currentTimeMillis() - startTime) / 1000.0;
+    /**
+     * Get the time of the current tick. Unlike {@link #elapsedTime()}, this only changes when {@link #update()} is called.
+     *
+     * @return The game time in seconds between {@link #start()} and the last {@link #update()}.
+     */
+    public synchronized double time() {
+        return currTime / 1e9;
     }
 
+    /**
+     * Get the current game time.
+     *
+     * @return The game time in seconds since {@link #start()}.
+     */
+    public synchronized double elapsedTime() {
+        return sync() / 1e9;
+    }
+
+    /**
+     * Add the game time that passed since the last sync.
+     *
+     * @return The game time in nanoseconds.
+     */
+    private long sync() {
+        long now = clock.nanoTime();
+        if (!paused) {
+            gameTime += Math.round((now - lastClockTime) * timeScale);
+        }
+        lastClockTime = now;
+        return gameTime;
+    }
 }
@@ -0,0 +1,76 @@
+package com.coolioasjulio.arcademachine.pacman.engine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands data from one writer thread to one reader thread without either of them ever waiting on the other.
+ * There are three buffers: the writer fills the back buffer, the reader reads the front buffer, and the third one holds the
+ * latest published data. Publishing and acquiring just swap a buffer with the middle one, so the buffers are reused forever.
+ * The reader always gets the most recently published buffer, and skips any that were published in between.
+ *
+ * @param <T> The type of the buffers.
+ */
+public class TripleBuffer<T> {
+    // The index of the middle buffer is in the low bits. This bit is set if the middle buffer hasn't been acquired yet.
+    private static final int FRESH = 4;
+    private static final int INDEX_MASK = 3;
+
+    private final Object[] buffers;
+    private final AtomicInteger middle = new AtomicInteger(1);
+    // Only used by the writer
+    private int back = 0;
+    // Only used by the reader
+    private int front = 2;
+
+    /**
+     * Create a triple buffer.
+     *
+     * @param factory Creates each of the three buffers.
+     */
+    public TripleBuffer(Supplier<T> factory) {
+        buffers = new Object[]{factory.get(), factory.get(), factory.get()};
+    }
+
+    /**
+     * Get the buffer for the writer to fill. This is the same buffer until {@link #publish()} is called.
+     * The buffer may still hold data from an earlier publish, so the writer can update it instead of starting over.
+     *
+     * @return The back buffer. Only the writer thread may use this.
+     */
+    @SuppressWarnings("unchecked")
+    public T getBackBuffer() {
+        return (T) buffers[back];
+    }
+
+    /**
+     * Make the back buffer the latest data, and give the writer another buffer to fill.
+     * The writer must not touch the published buffer afterwards.
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Get the most recently published buffer. If nothing was published since the last call, the same buffer is returned again.
+     * The returned buffer stays valid until the next call.
+     *
+     * @return The front buffer. Only the reader thread may use this.
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return (T) buffers[front];
+    }
+
+    /**
+     * Checks if a buffer was published since the reader last acquired one.
+     *
+     * @return True if {@link #acquire()} would return a new buffer, false otherwise.
+     */
+    public boolean hasUpdate() {
+        return (middle.get() & FRESH) != 0;
+    }
+}
@@ -0,0 +1,39 @@
+package com.coolioasjulio.arcademachine.launcher.pacman;
+
+import com.coolioasjulio.arcademachine.pacman.Direction;
+import com.coolioasjulio.arcademachine.pacman.FlowField;
+import com.coolioasjulio.arcademachine.pacman.LevelMap;
+import com.coolioasjulio.arcademachine.pacman.PathFinder;
+import com.coolioasjulio.arcademachine.pacman.engine.Coord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlowFieldTest {
+    private LevelMap levelMap;
+
+    @BeforeEach
+    void setUp() {
+        levelMap = new LevelMap(new boolean[10][10], 0, 0);
+    }
+
+    @Test
+    void distanceTest() {
+        FlowField field = new FlowField(levelMap, 5, 5);
+        assertEquals(0, field.getDistance(5, 5));
+        assertEquals(10, field.getDistance(0, 0));
+        assertEquals(-1, field.getDistance(-1, 0));
+    }
+
+    @Test
+    void matchesPathFinderTest() {
+        FlowField field = new FlowField(levelMap, 5, 1);
+        assertEquals(new PathFinder.PathFindingResult(5, Direction.EAST), field.pathFind(1, 1));
+        assertEquals(new PathFinder.PathFindingResult(0, Direction.EAST), field.pathFind(5, 1));
+        // Blocking the downhill path has to give the same detour as the path finder
+        Coord exclusion = new Coord(3, 1);
+        assertEquals(PathFinder.pathFind(levelMap, 1, 1, 5, 1, exclusion), field.pathFind(1, 1, exclusion));
+        assertEquals(7, field.pathFind(1, 1, exclusion).distance);
+    }
+}
@@ -1,7 +1,11 @@
 package com.coolioasjulio.arcademachine.launcher.pacman;
 
+import com.coolioasjulio.arcademachine.pacman.Direction;
+import com.coolioasjulio.arcademachine.pacman.FlowField;
+import com.coolioasjulio.arcademachine.pacman.GameState;
 import com.coolioasjulio.arcademachine.pacman.Ghost;
 import com.coolioasjulio.arcademachine.pacman.LevelMap;
+import com.coolioasjulio.arcademachine.pacman.engine.Coord;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,4 +43,32 @@ class GhostTest {
         assertEquals(0, ghost.getX());
         assertEquals(0, ghost.getY());
     }
-}
\ No newline at end of file
+
+    @Test
+    void thinkTest() {
+        LevelMap level = new LevelMap(new boolean[][]{{false, false, false}, {false, true, false}, {false, false, false}}, 0, 0);
+        Coord pacMan = new Coord(0, 2);
+        GameState state = new GameState(level, 10, new FlowField(level, pacMan.x, pacMan.y), pacMan, null, Direction.EAST);
+        // Changing the coordinate after the snapshot is taken doesn't change the snapshot
+        pacMan.y = 0;
+        assertEquals(2, state.getPacManTileY());
+
+        int[] calls = new int[1];
+        ghost.setBehavior(new Ghost.GhostBehavior(ghost) {
+            @Override
+            public Direction getDirection(GameState state) {
+                calls[0]++;
+                return Direction.SOUTH;
+            }
+        });
+        assertTrue(ghost.needsDecision());
+        ghost.think(state);
+        assertFalse(ghost.needsDecision());
+        // The behavior is only asked once per tile
+        ghost.think(state);
+        assertEquals(1, calls[0]);
+        ghost.update(level, 1);
+        assertEquals(0, ghost.getX());
+        assertEquals(5, ghost.getY());
+    }
+}
@@ -0,0 +1,53 @@
+package com.coolioasjulio.arcademachine.launcher.pacman;
+
+import com.coolioasjulio.arcademachine.pacman.LevelMap;
+import com.coolioasjulio.arcademachine.pacman.PathFinder;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelFileTest {
+
+    @Test
+    void saveLoadTest() throws IOException {
+        LevelMap original = LevelMap.loadFromImg(ImageIO.read(getClass().getResourceAsStream("/pacmanlevel.png")));
+        Path file = Files.createTempFile("level", ".lvl");
+        // The loaded path table keeps the file mapped, and mapped files can't be deleted on every platform until the JVM exits
+        file.toFile().deleteOnExit();
+        original.saveToFile(file);
+        LevelMap loaded = LevelMap.loadFromFile(file);
+        assertEquals(original.getWidth(), loaded.getWidth());
+        assertEquals(original.getHeight(), loaded.getHeight());
+        assertEquals(original.spawnX(), loaded.spawnX());
+        assertEquals(original.spawnY(), loaded.spawnY());
+        assertArrayEquals(original.getPowerupsCoords(), loaded.getPowerupsCoords());
+        for (int y = 0; y < original.getHeight(); y++) {
+            for (int x = 0; x < original.getWidth(); x++) {
+                assertEquals(original.isWall(x, y), loaded.isWall(x, y));
+            }
+        }
+        // The path table from the file finds the same paths
+        int width = original.getWidth();
+        for (int from = 0; from < width * original.getHeight(); from += 7) {
+            for (int to = 0; to < width * original.getHeight(); to += 11) {
+                PathFinder.PathFindingResult expected = PathFinder.pathFind(original, from % width, from / width, to % width, to / width);
+                PathFinder.PathFindingResult actual = PathFinder.pathFind(loaded, from % width, from / width, to % width, to / width);
+                assertEquals(expected.distance, actual.distance);
+                assertEquals(expected.direction, actual.direction);
+            }
+        }
+    }
+
+    @Test
+    void invalidFileTest() throws IOException {
+        Path file = Files.createTempFile("level", ".lvl");
+        file.toFile().deleteOnExit();
+        Files.write(file, "not a level".getBytes("UTF-8"));
+        assertThrows(IllegalArgumentException.class, () -> LevelMap.loadFromFile(file));
+    }
+}
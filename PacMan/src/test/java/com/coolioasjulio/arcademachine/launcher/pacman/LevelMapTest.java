@@ -0,0 +1,146 @@
+package com.coolioasjulio.arcademachine.launcher.pacman;
+
+import com.coolioasjulio.arcademachine.pacman.LevelMap;
+import com.coolioasjulio.arcademachine.pacman.engine.BoxCollider;
+import com.coolioasjulio.arcademachine.pacman.engine.Coord;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelMapTest {
+
+    @Test
+    void junctionTest() {
+        boolean[][] walls = new boolean[][]{
+                {false, false, false, false},
+                {false, true, true, false},
+                {false, false, false, false},
+                {true, false, true, true}};
+        LevelMap levelMap = new LevelMap(walls, 0, 0);
+        // Corners and straight corridors aren't junctions
+        assertFalse(levelMap.isJunction(0, 0));
+        assertFalse(levelMap.isJunction(1, 0));
+        assertFalse(levelMap.isJunction(3, 1));
+        // T intersections and dead ends are
+        assertTrue(levelMap.isJunction(1, 2));
+        assertTrue(levelMap.isJunction(1, 3));
+        // Walls and out of bounds tiles aren't
+        assertFalse(levelMap.isJunction(1, 1));
+        assertFalse(levelMap.isJunction(-1, 0));
+    }
+
+    @Test
+    void loopJunctionTest() {
+        // A loop without any intersections still needs a junction somewhere, but only one
+        boolean[][] walls = new boolean[][]{
+                {false, false, false},
+                {false, true, false},
+                {false, false, false}};
+        LevelMap levelMap = new LevelMap(walls, 0, 0);
+        int junctions = 0;
+        for (int y = 0; y < levelMap.getHeight(); y++) {
+            for (int x = 0; x < levelMap.getWidth(); x++) {
+                if (levelMap.isJunction(x, y)) junctions++;
+            }
+        }
+        assertEquals(1, junctions);
+    }
+
+    @Test
+    void collidesTest() {
+        LevelMap levelMap = new LevelMap(new boolean[][]{{false, true}, {false, false}}, 0, 0);
+        assertFalse(levelMap.collides(0, 0, 10, 10, 10));
+        assertTrue(levelMap.collides(1, 0, 10, 10, 10));
+        // Sharing an edge with a wall isn't a collision
+        assertFalse(levelMap.collides(0, 10, 10, 10, 10));
+        // Boxes outside the level never collide
+        assertFalse(levelMap.collides(-50, -50, 10, 10, 10));
+        assertTrue(levelMap.collides(new BoxCollider(15, 5, 1, 1), 10));
+    }
+
+    @Test
+    void collidesMatchesAllWallsTest() {
+        boolean[][] walls = new boolean[][]{
+                {true, false, true},
+                {false, false, true},
+                {true, true, false}};
+        LevelMap levelMap = new LevelMap(walls, 1, 1);
+        int size = 10;
+        for (int x = -15; x < 40; x++) {
+            for (int y = -15; y < 40; y++) {
+                // Check against every wall in the level
+                boolean expected = false;
+                for (int row = 0; row < walls.length; row++) {
+                    for (int col = 0; col < walls[row].length; col++) {
+                        expected |= walls[row][col] && BoxCollider.intersects(col * size, row * size, size, size, x, y, 7, size);
+                    }
+                }
+                assertEquals(expected, levelMap.collides(x, y, 7, size, size));
+            }
+        }
+    }
+
+    @Test
+    void loadFromImgTest() {
+        // Every format is read the same way, whether or not it has a fast path
+        int[] types = {BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_BGR,
+                BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR, BufferedImage.TYPE_BYTE_INDEXED};
+        for (int type : types) {
+            checkLoadFromImg(new BufferedImage(37, 23, type));
+        }
+        // Big enough to be read in parallel bands that don't line up with the rows
+        checkLoadFromImg(new BufferedImage(1001, 700, BufferedImage.TYPE_4BYTE_ABGR));
+        // Images that are part of a bigger image
+        checkLoadFromImg(new BufferedImage(60, 50, BufferedImage.TYPE_INT_ARGB).getSubimage(7, 5, 40, 30));
+        checkLoadFromImg(new BufferedImage(60, 50, BufferedImage.TYPE_3BYTE_BGR).getSubimage(3, 9, 41, 30));
+    }
+
+    @Test
+    void loadFromImgAlphaTest() {
+        BufferedImage image = new BufferedImage(3, 1, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, Color.RED.getRGB());
+        // Colors only count if they're opaque
+        image.setRGB(1, 0, 0x80000000);
+        image.setRGB(2, 0, 0x8000FF00);
+        LevelMap levelMap = LevelMap.loadFromImg(image);
+        assertFalse(levelMap.isWall(1, 0));
+        assertEquals(0, levelMap.getPowerupsCoords().length);
+        assertThrows(IllegalArgumentException.class, () -> LevelMap.loadFromImg(new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB)));
+    }
+
+    private static void checkLoadFromImg(BufferedImage image) {
+        Random random = new Random(image.getWidth() * 31 + image.getType());
+        int width = image.getWidth(), height = image.getHeight();
+        boolean[][] walls = new boolean[height][width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                walls[y][x] = random.nextInt(3) == 0;
+                image.setRGB(x, y, walls[y][x] ? Color.BLACK.getRGB() : Color.WHITE.getRGB());
+            }
+        }
+        // The last spawn point wins
+        image.setRGB(1, 1, Color.RED.getRGB());
+        image.setRGB(width - 2, height - 1, Color.RED.getRGB());
+        walls[1][1] = walls[height - 1][width - 2] = false;
+        image.setRGB(width - 1, 0, Color.GREEN.getRGB());
+        image.setRGB(0, height - 1, Color.GREEN.getRGB());
+        walls[0][width - 1] = walls[height - 1][0] = false;
+
+        LevelMap levelMap = LevelMap.loadFromImg(image);
+        assertEquals(width, levelMap.getWidth());
+        assertEquals(height, levelMap.getHeight());
+        assertEquals(width - 2, levelMap.spawnX());
+        assertEquals(height - 1, levelMap.spawnY());
+        // Powerups are in row-major order
+        assertArrayEquals(new Coord[]{new Coord(width - 1, 0), new Coord(0, height - 1)}, levelMap.getPowerupsCoords());
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                assertEquals(walls[y][x], levelMap.isWall(x, y));
+            }
+        }
+    }
+}
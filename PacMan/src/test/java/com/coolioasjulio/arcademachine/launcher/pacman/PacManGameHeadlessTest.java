@@ -0,0 +1,115 @@
+package com.coolioasjulio.arcademachine.launcher.pacman;
+
+import com.coolioasjulio.arcademachine.pacman.GhostConfig;
+import com.coolioasjulio.arcademachine.pacman.LevelMap;
+import com.coolioasjulio.arcademachine.pacman.PacManGameHeadless;
+import com.coolioasjulio.arcademachine.pacman.ScriptedInput;
+import com.coolioasjulio.arcademachine.pacman.behaviors.GhostChaseBehavior;
+import com.coolioasjulio.arcademachine.pacman.engine.NullDrawer;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PacManGameHeadlessTest {
+
+    @Test
+    void simulateTest() throws IOException {
+        LevelMap map = LevelMap.loadFromImg(ImageIO.read(getClass().getResourceAsStream("/pacmanlevel.png")));
+        PacManGameHeadless game = new PacManGameHeadless(map, 30);
+        ScriptedInput input = new ScriptedInput().press(0, KeyEvent.VK_LEFT).press(100, KeyEvent.VK_UP);
+        game.setInput(input);
+        game.simulate(2000);
+        assertEquals(2000, game.getTicks());
+        assertEquals(1999, input.getTick());
+        assertTrue(game.getGames() >= 1);
+        // Simulating more ticks adds to the total
+        game.simulate(10);
+        assertEquals(2010, game.getTicks());
+    }
+
+    @Test
+    void hordeTest() throws IOException {
+        LevelMap map = LevelMap.loadFromImg(ImageIO.read(getClass().getResourceAsStream("/pacmanlevel.png")));
+        PacManGameHeadless game = new PacManGameHeadless(map, 30);
+        // Pac man stands still on the spawn point, so he never eats a powerup
+        game.setInput(new ScriptedInput());
+        game.setGhostConfig(GhostConfig.horde(64));
+        game.simulate(200);
+        // The ghosts are harmless, so they all spawn and nobody dies
+        assertEquals(64, game.getNumGhosts());
+        assertEquals(0, game.getDeaths());
+        assertFalse(Double.isNaN(game.getTickTimePercentile(64, 50)));
+        assertTrue(Double.isNaN(game.getTickTimePercentile(1000, 50)));
+        assertTrue(game.getTickTimeReport().contains("64-127"));
+        assertThrows(IllegalArgumentException.class, () -> new GhostConfig(4, 10, 0, true, GhostConfig.CLASSIC_BEHAVIORS));
+    }
+
+    @Test
+    void cullingTest() {
+        // A level far bigger than the screen, with a pellet on every tile
+        LevelMap map = new LevelMap(new boolean[200][200], 100, 100);
+        PacManGameHeadless game = new PacManGameHeadless(map, 30);
+        game.setInput(new ScriptedInput());
+        game.getCamera().setViewportSize(300, 300);
+        int[] rects = new int[1];
+        game.setDrawer(new NullDrawer() {
+            @Override
+            public void fillRect(int x, int y, int width, int height) {
+                rects[0]++;
+            }
+        });
+        game.simulate(1);
+        // Only the background and the pellets around pac man are drawn
+        assertTrue(rects[0] > 0);
+        assertTrue(rects[0] <= 1 + 11 * 11, "Drew " + rects[0] + " rectangles");
+        assertEquals(100 * 30 + 15 - 150, game.getCamera().getX());
+    }
+
+    @Test
+    void largeTimestepTest() throws IOException {
+        LevelMap map = LevelMap.loadFromImg(ImageIO.read(getClass().getResourceAsStream("/pacmanlevel.png")));
+        PacManGameHeadless game = new PacManGameHeadless(map, 30);
+        game.setInput(new ScriptedInput().press(0, KeyEvent.VK_LEFT).press(10, KeyEvent.VK_UP));
+        // Everything moves more than a tile per tick
+        game.setTimestep(0.5);
+        game.simulate(500);
+        assertEquals(500, game.getTicks());
+        assertTrue(game.getScore() > 0);
+        assertThrows(IllegalArgumentException.class, () -> game.setTimestep(0));
+    }
+
+    @Test
+    void parallelGamesTest() throws Exception {
+        LevelMap map = LevelMap.loadFromImg(ImageIO.read(getClass().getResourceAsStream("/pacmanlevel.png")));
+        // Chasing is deterministic, so every game should play out the same
+        GhostConfig config = new GhostConfig(4, 2, 1, true, Collections.singletonList((g, i) -> new GhostChaseBehavior(g)));
+        PacManGameHeadless[] games = new PacManGameHeadless[4];
+        Thread[] threads = new Thread[games.length];
+        for (int i = 0; i < games.length; i++) {
+            PacManGameHeadless game = games[i] = new PacManGameHeadless(map, 30);
+            game.setInput(new ScriptedInput().press(0, KeyEvent.VK_LEFT).press(40, KeyEvent.VK_UP));
+            game.setGhostConfig(config);
+            threads[i] = new Thread(() -> game.simulate(3000));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        PacManGameHeadless reference = new PacManGameHeadless(map, 30);
+        reference.setInput(new ScriptedInput().press(0, KeyEvent.VK_LEFT).press(40, KeyEvent.VK_UP));
+        reference.setGhostConfig(config);
+        reference.simulate(3000);
+        assertTrue(reference.getDeaths() > 0);
+        for (PacManGameHeadless game : games) {
+            assertEquals(3000, game.getTicks());
+            assertEquals(reference.getScore(), game.getScore());
+            assertEquals(reference.getDeaths(), game.getDeaths());
+            assertEquals(reference.getGames(), game.getGames());
+        }
+    }
+}
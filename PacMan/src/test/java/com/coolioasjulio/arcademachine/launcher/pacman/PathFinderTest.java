@@ -3,6 +3,7 @@ package com.coolioasjulio.arcademachine.launcher.pacman;
 import com.coolioasjulio.arcademachine.pacman.Direction;
 import com.coolioasjulio.arcademachine.pacman.LevelMap;
 import com.coolioasjulio.arcademachine.pacman.PathFinder;
+import com.coolioasjulio.arcademachine.pacman.engine.Coord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -33,7 +34,28 @@ class PathFinderTest {
             row[i] = true;
         }
         walls[4] = row;
+        // The level map keeps its own copy of the walls, so it has to be recreated
+        levelMap = new LevelMap(walls, 0, 0);
         assertNotEquals(Direction.EAST, PathFinder.pathFind(levelMap, 5, 1, 5, 5).direction);
         assertNotEquals(Direction.NORTH, PathFinder.pathFind(levelMap, 5, 1, 5, 5).direction);
     }
-}
\ No newline at end of file
+
+    @Test
+    void exclusionTest() {
+        // The straight path is blocked, so the path has to go around the excluded tile
+        PathFinder.PathFindingResult result = PathFinder.pathFind(levelMap, 1, 1, 5, 1, new Coord(3, 1));
+        assertEquals(7, result.distance);
+        assertNotEquals(Direction.EAST, result.direction);
+        // Exclusions that aren't on the shortest path shouldn't change anything
+        assertEquals(new PathFinder.PathFindingResult(5, Direction.EAST), PathFinder.pathFind(levelMap, 1, 1, 5, 1, new Coord(3, 3), null));
+    }
+
+    @Test
+    void unreachableTest() {
+        assertNull(PathFinder.pathFind(levelMap, 1, 1, 5, 1, new Coord(5, 1)).direction);
+        walls[0][1] = true;
+        walls[1][0] = true;
+        walls[1][1] = true;
+        assertNull(PathFinder.pathFind(new LevelMap(walls, 0, 0), 0, 0, 5, 5).direction);
+    }
+}
@@ -0,0 +1,50 @@
+package com.coolioasjulio.arcademachine.launcher.pacman;
+
+import com.coolioasjulio.arcademachine.pacman.TileSet;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TileSetTest {
+
+    @Test
+    void addRemoveTest() {
+        TileSet set = new TileSet(10, 10);
+        assertTrue(set.isEmpty());
+        set.add(3, 4);
+        set.add(3, 4);
+        set.add(9, 9);
+        assertEquals(2, set.size());
+        assertTrue(set.contains(3, 4));
+        assertFalse(set.contains(4, 3));
+        // Out of bounds tiles are never in the set
+        assertFalse(set.contains(-1, 0));
+        assertFalse(set.contains(10, 9));
+
+        assertTrue(set.remove(3, 4));
+        assertFalse(set.remove(3, 4));
+        assertFalse(set.remove(20, 20));
+        assertEquals(1, set.size());
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(9, 9));
+    }
+
+    @Test
+    void iterationTest() {
+        // Big enough to span several words of the bitset
+        TileSet set = new TileSet(30, 10);
+        int[][] tiles = new int[][]{{0, 0}, {29, 1}, {5, 2}, {7, 6}, {29, 9}};
+        for (int[] tile : tiles) {
+            set.add(tile[0], tile[1]);
+        }
+        int i = 0;
+        for (int tile = set.nextTile(0); tile != -1; tile = set.nextTile(tile + 1)) {
+            assertEquals(tiles[i][1] * 30 + tiles[i][0], tile);
+            i++;
+        }
+        assertEquals(tiles.length, i);
+        assertEquals(-1, set.nextTile(300));
+    }
+}
@@ -1,5 +1,7 @@
 package com.coolioasjulio.arcademachine.launcher.pacman;
 
+import com.coolioasjulio.arcademachine.pacman.Direction;
+import com.coolioasjulio.arcademachine.pacman.LevelMap;
 import com.coolioasjulio.arcademachine.pacman.Utils;
 import com.coolioasjulio.arcademachine.pacman.engine.GameObject;
 import org.junit.jupiter.api.Test;
@@ -26,4 +28,90 @@ class UtilsTest {
         test.updateWithCollision();
         test.tearDown();
     }
-}
\ No newline at end of file
+
+    @Test
+    void warpEdgesTest() {
+        LevelMap levelMap = new LevelMap(new boolean[5][5], 0, 0);
+        int size = 10;
+        GameObject obj = new GameObject(40, 20, null);
+        obj.savePosition();
+        obj.moveX(12);
+        Utils.warpEdges(obj, levelMap, size);
+        assertEquals(0, obj.getX());
+        // Warping is a teleport, so the object doesn't move from its old position
+        assertEquals(0, obj.getPrevX());
+        assertEquals(20, obj.getPrevY());
+        // Normal movement keeps the old position
+        obj.moveX(5);
+        Utils.warpEdges(obj, levelMap, size);
+        assertEquals(0, obj.getPrevX());
+    }
+
+    @Test
+    void sweptMoveTest() {
+        // A corridor along the top row, with a wall at column 6
+        boolean[][] walls = new boolean[3][8];
+        walls[0][6] = true;
+        LevelMap levelMap = new LevelMap(walls, 0, 0);
+        int size = 10;
+        GameObject obj = new GameObject(0, 0, null);
+        // Several tiles at once is fine
+        Utils.moveGameObject(obj, levelMap, Direction.EAST, 35, size);
+        assertEquals(35, obj.getX());
+        // The wall stops the object, even though the move would have jumped over it
+        Utils.moveGameObject(obj, levelMap, Direction.EAST, 100, size);
+        assertEquals(50, obj.getX());
+        // Distances too big to add to the position as ints still stop at the wall
+        GameObject far = new GameObject(10, 0, null);
+        Utils.moveGameObject(far, levelMap, Direction.EAST, Integer.MAX_VALUE, size);
+        assertEquals(50, far.getX());
+        Utils.moveGameObject(obj, levelMap, Direction.WEST, 1000, size);
+        assertEquals(-950, obj.getX());
+        assertThrows(IllegalArgumentException.class, () -> Utils.moveGameObject(obj, levelMap, Direction.EAST, -1, size));
+    }
+
+    @Test
+    void subPixelMoveTest() {
+        LevelMap levelMap = new LevelMap(new boolean[1][100], 0, 0);
+        GameObject obj = new GameObject(0, 0, null);
+        // The fractions add up instead of being rounded away
+        for (int i = 0; i < 20; i++) {
+            Utils.moveGameObject(obj, levelMap, Direction.EAST, 0.25, 10);
+        }
+        assertEquals(5, obj.getX());
+        assertEquals(0, obj.getSubPixels());
+        Utils.moveGameObject(obj, levelMap, Direction.EAST, 5.5, 10);
+        assertEquals(10, obj.getX());
+        assertEquals(GameObject.SUBPIXELS / 2, obj.getSubPixels());
+    }
+
+    @Test
+    void subPixelTurnTest() {
+        LevelMap levelMap = new LevelMap(new boolean[100][100], 0, 0);
+        GameObject obj = new GameObject(100, 100, null);
+        Utils.moveGameObject(obj, levelMap, Direction.EAST, 0.75, 10);
+        assertEquals(100, obj.getX());
+        assertEquals(3 * GameObject.SUBPIXELS / 4, obj.getSubPixels());
+        // The leftover is in the old direction, so it doesn't count towards the new one
+        Utils.moveGameObject(obj, levelMap, Direction.SOUTH, 0.5, 10);
+        assertEquals(100, obj.getX());
+        assertEquals(100, obj.getY());
+        assertEquals(GameObject.SUBPIXELS / 2, obj.getSubPixels());
+        assertEquals(Direction.SOUTH, obj.getSubPixelDirection());
+        // Turning back doesn't get the old leftover back either
+        Utils.moveGameObject(obj, levelMap, Direction.EAST, 0.5, 10);
+        assertEquals(100, obj.getX());
+        // Snapping, warping and setting the position drop it
+        Utils.snapGameObject(obj, 10, 2);
+        assertEquals(0, obj.getSubPixels());
+        Utils.moveGameObject(obj, levelMap, Direction.EAST, 0.5, 10);
+        obj.setLocalPosition(-15, 100);
+        assertEquals(0, obj.getSubPixels());
+        Utils.moveGameObject(obj, levelMap, Direction.WEST, 0.5, 10);
+        assertEquals(GameObject.SUBPIXELS / 2, obj.getSubPixels());
+        Utils.warpEdges(obj, levelMap, 10);
+        assertEquals(990, obj.getX());
+        assertEquals(0, obj.getSubPixels());
+        assertNull(obj.getSubPixelDirection());
+    }
+}
@@ -0,0 +1,42 @@
+package com.coolioasjulio.arcademachine.pacman.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CameraTest {
+
+    @Test
+    void followTest() {
+        Camera camera = new Camera(1000, 500);
+        camera.setViewportSize(200, 100);
+        camera.follow(500, 250);
+        assertEquals(400, camera.getX());
+        assertEquals(200, camera.getY());
+        // The camera stops at the edges of the world
+        camera.follow(10, 490);
+        assertEquals(0, camera.getX());
+        assertEquals(400, camera.getY());
+        camera.follow(2000, -50);
+        assertEquals(new Coord(800, 0), camera.getPosition());
+        // Worlds smaller than the viewport are shown from the corner
+        camera.setWorldSize(100, 50);
+        assertEquals(new Coord(0, 0), camera.getPosition());
+    }
+
+    @Test
+    void positionForTest() {
+        Camera camera = new Camera(1000, 500);
+        camera.setViewportSize(200, 100);
+        camera.follow(500, 250);
+        assertEquals(new Coord(100, 0), camera.getPositionFor(200, 10));
+        // The camera doesn't move
+        assertEquals(new Coord(400, 200), camera.getPosition());
+    }
+
+    @Test
+    void viewportSizeTest() {
+        Camera camera = new Camera(1000, 1000);
+        assertThrows(IllegalArgumentException.class, () -> camera.setViewportSize(-1, 10));
+    }
+}
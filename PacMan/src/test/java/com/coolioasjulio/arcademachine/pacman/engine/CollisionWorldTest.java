@@ -0,0 +1,88 @@
+package com.coolioasjulio.arcademachine.pacman.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CollisionWorldTest {
+
+    private static GameObject createObject(int x, int y, int size) {
+        return new GameObject(x, y, new BoxCollider(0, 0, size, size));
+    }
+
+    @Test
+    void layerTest() {
+        CollisionWorld world = new CollisionWorld(10);
+        GameObject player = createObject(0, 0, 10);
+        GameObject enemy = createObject(5, 5, 10);
+        GameObject otherEnemy = createObject(2, 2, 10);
+        world.add(player, 1, 2);
+        world.add(enemy, 2, 1);
+        // Enemies don't collide with each other
+        world.add(otherEnemy, 2, 1);
+        List<GameObject[]> contacts = new ArrayList<>();
+        world.addContactListener((a, b) -> contacts.add(new GameObject[]{a, b}));
+        world.step();
+        assertEquals(2, contacts.size());
+        assertEquals(2, world.getNumContacts());
+        for (GameObject[] contact : contacts) {
+            // The object that was added first is always reported first
+            assertSame(player, contact[0]);
+        }
+        // Both masks have to match
+        world.clear();
+        world.add(player, 1, 2);
+        world.add(enemy, 2, 0);
+        world.step();
+        assertEquals(0, world.getNumContacts());
+    }
+
+    @Test
+    void multipleCellsTest() {
+        CollisionWorld world = new CollisionWorld(10);
+        // These share 4 cells, but should only be reported once
+        GameObject a = createObject(-15, -15, 30);
+        GameObject b = createObject(-5, -5, 30);
+        world.add(a, 1, 1);
+        world.add(b, 1, 1);
+        int[] count = new int[1];
+        world.addContactListener((x, y) -> count[0]++);
+        world.step();
+        assertEquals(1, count[0]);
+        // Sharing an edge isn't an intersection
+        b.setLocalPosition(15, -15);
+        world.step();
+        assertEquals(1, count[0]);
+        world.remove(a);
+        assertEquals(1, world.size());
+    }
+
+    @Test
+    void matchesBruteForceTest() {
+        CollisionWorld world = new CollisionWorld(16);
+        Random random = new Random(7);
+        List<GameObject> objects = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            GameObject obj = createObject(random.nextInt(400) - 200, random.nextInt(400) - 200, 1 + random.nextInt(40));
+            objects.add(obj);
+            world.add(obj, 1, 1);
+        }
+        int expected = 0;
+        for (int i = 0; i < objects.size(); i++) {
+            for (int j = i + 1; j < objects.size(); j++) {
+                if (objects.get(i).intersects(objects.get(j))) expected++;
+            }
+        }
+        world.step();
+        assertEquals(expected, world.getNumContacts());
+    }
+
+    @Test
+    void invalidCellSizeTest() {
+        assertThrows(IllegalArgumentException.class, () -> new CollisionWorld(0));
+    }
+}
@@ -0,0 +1,95 @@
+package com.coolioasjulio.arcademachine.pacman.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityStoreTest {
+
+    @Test
+    void createDestroyTest() {
+        EntityStore store = new EntityStore(2);
+        int a = store.create(0, 0);
+        int b = store.create(10, 0);
+        // Grows past the initial capacity
+        int c = store.create(20, 0);
+        assertEquals(3, store.size());
+        store.destroy(b);
+        assertFalse(store.isAlive(b));
+        assertEquals(2, store.size());
+        assertThrows(IllegalArgumentException.class, () -> store.destroy(b));
+        // Destroyed ids are reused
+        assertEquals(b, store.create(5, 5));
+        assertEquals(5, store.getX(b));
+        assertTrue(store.isAlive(a) && store.isAlive(c));
+        store.clear();
+        assertEquals(0, store.size());
+        assertFalse(store.isAlive(a));
+    }
+
+    @Test
+    void hasFlagsTest() {
+        EntityStore store = new EntityStore();
+        int a = store.create(0, 0);
+        assertTrue(store.hasFlags(a, EntityStore.VISIBLE | EntityStore.SOLID));
+        assertTrue(store.hasFlags(a, 0));
+        assertFalse(store.hasFlags(a, EntityStore.FIRST_USER_FLAG));
+        // Destroyed ids are on the free list, and don't have any flags
+        store.destroy(a);
+        assertFalse(store.hasFlags(a, EntityStore.VISIBLE));
+        assertFalse(store.hasFlags(a, 0));
+        int b = store.create(0, 0);
+        store.clear();
+        assertFalse(store.hasFlags(b, 0));
+        // Ids that were never used don't either
+        assertFalse(store.hasFlags(100, 0));
+    }
+
+    @Test
+    void iterationTest() {
+        int flag = EntityStore.FIRST_USER_FLAG;
+        EntityStore store = new EntityStore();
+        for (int i = 0; i < 10; i++) {
+            int id = store.create(i, i);
+            if (i % 2 == 0) {
+                store.setFlags(id, store.getFlags(id) | flag);
+            }
+        }
+        store.destroy(4);
+        List<Integer> visited = new ArrayList<>();
+        store.forEach(flag, visited::add);
+        assertEquals(Arrays.asList(0, 2, 6, 8), visited);
+
+        store.setFlags(0, flag);
+        List<Integer> drawn = new ArrayList<>();
+        store.draw(new NullDrawer(), flag, (d, id, x, y, image) -> drawn.add(id));
+        // Entity 0 isn't visible anymore
+        assertEquals(Arrays.asList(2, 6, 8), drawn);
+    }
+
+    @Test
+    void collisionTest() {
+        EntityStore store = new EntityStore();
+        int a = store.create(0, 0);
+        store.setCollider(a, 2, 2, 4, 4);
+        int b = store.create(4, 0);
+        store.setCollider(b, 2, 2, 4, 4);
+        int c = store.create(0, 0); // No collider
+        assertFalse(store.intersects(a, b));
+        store.move(b, -1, 0);
+        assertTrue(store.intersects(a, b));
+        assertFalse(store.intersects(a, c));
+
+        List<Integer> hits = new ArrayList<>();
+        assertEquals(2, store.forEachIntersecting(new BoxCollider(0, 0, 6, 6), hits::add));
+        assertEquals(Arrays.asList(a, b), hits);
+        // Entities that aren't solid aren't found
+        store.setFlags(b, EntityStore.VISIBLE);
+        assertEquals(1, store.forEachIntersecting(0, 0, 6, 6, id -> {
+        }));
+    }
+}
@@ -0,0 +1,79 @@
+package com.coolioasjulio.arcademachine.pacman.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocatableTest {
+
+    @Test
+    void childFollowsParentTest() {
+        BoxCollider collider = new BoxCollider(5, 7, 10, 10);
+        GameObject obj = new GameObject(100, 200, collider);
+        assertEquals(105, collider.getX());
+        assertEquals(207, collider.getY());
+        // Moving the parent has to invalidate the cached position of the child
+        obj.moveX(3);
+        assertEquals(108, collider.getX());
+        obj.setLocalPosition(0, 0);
+        assertEquals(5, collider.getX());
+        assertEquals(7, collider.getY());
+        obj.moveY(-10);
+        assertEquals(-3, collider.getY());
+    }
+
+    @Test
+    void grandparentTest() {
+        BoxCollider collider = new BoxCollider(1, 1, 10, 10);
+        GameObject parent = new GameObject(10, 10, collider);
+        GameObject grandparent = new GameObject(100, 100, null);
+        parent.setParent(grandparent);
+        assertEquals(111, collider.getX());
+        grandparent.setLocalPosition(0, 0);
+        assertEquals(11, collider.getX());
+        assertEquals(11, collider.getY());
+        parent.setParent(null);
+        assertEquals(11, collider.getX());
+    }
+
+    @Test
+    void reparentTest() {
+        BoxCollider collider = new BoxCollider(1, 1, 10, 10);
+        GameObject first = new GameObject(10, 10, collider);
+        GameObject second = new GameObject(100, 100, null);
+        assertEquals(11, collider.getX());
+        collider.setParent(second);
+        assertEquals(101, collider.getX());
+        // The old parent doesn't move the child anymore, but the new one does
+        first.moveX(5);
+        assertEquals(101, collider.getX());
+        second.moveX(5);
+        assertEquals(106, collider.getX());
+        assertEquals(101, collider.getY());
+    }
+
+    @Test
+    void uncachedParentTest() {
+        // A parent that can't say when it moves, so the position of the child is recomputed every time
+        Coord position = new Coord(10, 10);
+        Locatable root = new Locatable() {
+            public Coord getLocalPosition() {
+                return position;
+            }
+
+            public void setParent(Locatable parent) {
+            }
+
+            public Locatable getParent() {
+                return null;
+            }
+        };
+        BoxCollider collider = new BoxCollider(1, 1, 10, 10);
+        GameObject obj = new GameObject(10, 10, collider);
+        obj.setParent(root);
+        assertEquals(21, collider.getX());
+        position.x = 20;
+        assertEquals(31, collider.getX());
+        assertEquals(21, collider.getY());
+    }
+}
@@ -0,0 +1,154 @@
+package com.coolioasjulio.arcademachine.pacman.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordingDrawerTest {
+
+    @Test
+    void mergeRectsTest() {
+        RecordingDrawer recorder = new RecordingDrawer();
+        recorder.setColor(Color.BLUE);
+        // A 3x2 block of tiles, and one tile by itself
+        for (int y = 0; y < 2; y++) {
+            for (int x = 0; x < 3; x++) {
+                recorder.fillRect(x * 10, y * 10, 10, 10);
+            }
+        }
+        recorder.setColor(new Color(0, 0, 255));
+        recorder.fillRect(50, 0, 10, 10);
+        LogDrawer log = new LogDrawer();
+        recorder.replay(log);
+        assertEquals(Arrays.asList("color " + Color.BLUE.getRGB(), "fillRect 0 0 30 20", "fillRect 50 0 10 10"), log.calls);
+    }
+
+    @Test
+    void paintOrderTest() {
+        RecordingDrawer recorder = new RecordingDrawer();
+        recorder.setColor(Color.RED);
+        recorder.fillRect(0, 0, 10, 10);
+        recorder.setColor(Color.GREEN);
+        recorder.fillOval(5, 5, 10, 10);
+        // This doesn't overlap the oval, so it can be drawn with the first red rectangle
+        recorder.setColor(Color.RED);
+        recorder.fillRect(20, 20, 10, 10);
+        // This does, so it has to stay on top of it
+        recorder.fillRect(10, 10, 10, 10);
+        LogDrawer log = new LogDrawer();
+        recorder.replay(log);
+        assertEquals(Arrays.asList(
+                "color " + Color.RED.getRGB(), "fillRect 0 0 10 10", "fillRect 20 20 10 10",
+                "color " + Color.GREEN.getRGB(), "fillOval 5 5 10 10",
+                "color " + Color.RED.getRGB(), "fillRect 10 10 10 10"), log.calls);
+
+        // Replaying again draws the same thing, and nothing is left after a reset
+        LogDrawer again = new LogDrawer();
+        recorder.replay(again);
+        assertEquals(log.calls, again.calls);
+        recorder.reset();
+        again.calls.clear();
+        recorder.replay(again);
+        assertTrue(again.calls.isEmpty());
+    }
+
+    @Test
+    void samePixelsTest() {
+        Random random = new Random(42);
+        BufferedImage sprite = new BufferedImage(7, 5, BufferedImage.TYPE_INT_ARGB);
+        sprite.setRGB(3, 2, Color.MAGENTA.getRGB());
+        Color[] colors = {Color.BLACK, Color.BLUE, Color.YELLOW, Color.WHITE, new Color(255, 0, 0, 128)};
+        BufferedImage direct = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        BufferedImage replayed = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        Graphics2D directGraphics = direct.createGraphics();
+        Graphics2D replayedGraphics = replayed.createGraphics();
+        Drawer directDrawer = new AwtGraphicsAdapter(directGraphics);
+        RecordingDrawer recorder = new RecordingDrawer();
+
+        for (int frame = 0; frame < 20; frame++) {
+            for (int i = 0; i < 200; i++) {
+                int op = random.nextInt(10);
+                int x = random.nextInt(100) - 10, y = random.nextInt(100) - 10;
+                int w = random.nextInt(20), h = random.nextInt(20);
+                for (Drawer d : new Drawer[]{directDrawer, recorder}) {
+                    switch (op) {
+                        case 0:
+                            d.setColor(colors[(x + y + 100) % colors.length]);
+                            break;
+                        case 1:
+                            d.drawRect(x, y, w, h);
+                            break;
+                        case 2:
+                            d.drawOval(x, y, w, h);
+                            break;
+                        case 3:
+                            d.fillOval(x, y, w, h);
+                            break;
+                        case 4:
+                            d.drawImage(sprite, x, y);
+                            break;
+                        case 5:
+                            d.fillPolygon(new int[]{x, x + w, x}, new int[]{y, y, y + h});
+                            break;
+                        case 6:
+                            d.translate(w - 10, h - 10);
+                            break;
+                        default:
+                            // Mostly tiles, which can be merged
+                            d.fillRect(x / 10 * 10, y / 10 * 10, 10, 10);
+                            break;
+                    }
+                }
+            }
+            recorder.replay(new AwtGraphicsAdapter(replayedGraphics));
+            // The translation carries over to the next frame on the direct drawer, but the recorder forgets it
+            recorder.reset();
+            directGraphics.translate(-directGraphics.getTransform().getTranslateX(), -directGraphics.getTransform().getTranslateY());
+            assertArrayEquals(direct.getRGB(0, 0, 100, 100, null, 0, 100), replayed.getRGB(0, 0, 100, 100, null, 0, 100));
+        }
+    }
+
+    private static class LogDrawer implements Drawer {
+        private final List<String> calls = new ArrayList<>();
+
+        public void drawOval(int x, int y, int width, int height) {
+            calls.add(String.format("drawOval %d %d %d %d", x, y, width, height));
+        }
+
+        public void drawRect(int x, int y, int width, int height) {
+            calls.add(String.format("drawRect %d %d %d %d", x, y, width, height));
+        }
+
+        public void fillOval(int x, int y, int width, int height) {
+            calls.add(String.format("fillOval %d %d %d %d", x, y, width, height));
+        }
+
+        public void fillRect(int x, int y, int width, int height) {
+            calls.add(String.format("fillRect %d %d %d %d", x, y, width, height));
+        }
+
+        public void setColor(Color c) {
+            calls.add("color " + c.getRGB());
+        }
+
+        public void drawImage(BufferedImage image, int x, int y) {
+            calls.add(String.format("drawImage %d %d", x, y));
+        }
+
+        public void fillPolygon(int[] x, int[] y) {
+            calls.add("fillPolygon " + Arrays.toString(x) + " " + Arrays.toString(y));
+        }
+
+        public void translate(int dx, int dy) {
+            calls.add(String.format("translate %d %d", dx, dy));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.coolioasjulio.arcademachine.pacman.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpriteTest {
+
+    private static Sprite createSprite(int fps, int numImages) {
+        return new Sprite(0, 0, fps) {
+            @Override
+            public int numImages() {
+                return numImages;
+            }
+
+            @Override
+            public void drawImage(Drawer d, int index, int x, int y) {
+            }
+        };
+    }
+
+    @Test
+    void animateTest() {
+        Sprite sprite = createSprite(10, 3);
+        assertEquals(0, sprite.getActiveImageIndex());
+        sprite.animate(0.05);
+        assertEquals(0, sprite.getActiveImageIndex());
+        sprite.animate(0.15);
+        assertEquals(1, sprite.getActiveImageIndex());
+        sprite.animate(0.25);
+        assertEquals(2, sprite.getActiveImageIndex());
+        // Wraps around to the start of the spritesheet
+        sprite.animate(0.35);
+        assertEquals(0, sprite.getActiveImageIndex());
+        // The index only depends on the time, not on how many times it was animated
+        sprite.animate(10.05);
+        assertEquals(1, sprite.getActiveImageIndex());
+    }
+
+    @Test
+    void staticSpriteTest() {
+        Sprite sprite = createSprite(0, 3);
+        sprite.animate(5);
+        assertEquals(0, sprite.getActiveImageIndex());
+    }
+
+    @Test
+    void drawIndexTest() {
+        Sprite sprite = createSprite(10, 3);
+        sprite.animate(0.25);
+        // By default, the draw index is the active image
+        assertEquals(2, sprite.getDrawIndex());
+    }
+}
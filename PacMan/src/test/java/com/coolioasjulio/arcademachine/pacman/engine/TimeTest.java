@@ -0,0 +1,84 @@
+package com.coolioasjulio.arcademachine.pacman.engine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeTest {
+    private static final double EPSILON = 1e-9;
+
+    private Time.VirtualClock clock;
+    private Time time;
+
+    @BeforeEach
+    void setUp() {
+        clock = new Time.VirtualClock();
+        time = new Time(clock);
+        time.start();
+    }
+
+    @Test
+    void tickTest() {
+        clock.advance(0.05);
+        // The tick time only changes on update
+        assertEquals(0, time.time(), EPSILON);
+        assertEquals(0.05, time.elapsedTime(), EPSILON);
+        time.update();
+        assertEquals(0.05, time.time(), EPSILON);
+        assertEquals(0.05, time.deltaTime(), EPSILON);
+        clock.advanceNanos(1);
+        time.update();
+        assertEquals(1e-9, time.deltaTime(), EPSILON / 10);
+    }
+
+    @Test
+    void pauseTest() {
+        clock.advance(1);
+        time.pause();
+        clock.advance(5);
+        time.resume();
+        clock.advance(1);
+        time.update();
+        assertEquals(2, time.time(), EPSILON);
+        assertEquals(2, time.deltaTime(), EPSILON);
+    }
+
+    @Test
+    void timeScaleTest() {
+        clock.advance(1);
+        time.setTimeScale(2);
+        clock.advance(1);
+        time.setTimeScale(0.5);
+        clock.advance(1);
+        time.update();
+        // Changing the time scale only affects time that passes afterwards
+        assertEquals(3.5, time.time(), EPSILON);
+        assertThrows(IllegalArgumentException.class, () -> time.setTimeScale(-1));
+    }
+
+    @Test
+    void startTest() {
+        clock.advance(3);
+        time.update();
+        time.start();
+        assertEquals(0, time.time(), EPSILON);
+        assertEquals(0, time.deltaTime(), EPSILON);
+        assertThrows(IllegalArgumentException.class, () -> clock.advance(-1));
+    }
+
+    @Test
+    void independentClocksTest() {
+        Time.VirtualClock otherClock = new Time.VirtualClock();
+        Time other = new Time(otherClock);
+        other.start();
+        clock.advance(1);
+        otherClock.advance(3);
+        other.pause();
+        time.update();
+        other.update();
+        assertEquals(1, time.time(), EPSILON);
+        assertEquals(3, other.time(), EPSILON);
+        assertFalse(time.isPaused());
+    }
+}
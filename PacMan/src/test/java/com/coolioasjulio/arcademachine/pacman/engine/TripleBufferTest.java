@@ -0,0 +1,62 @@
+package com.coolioasjulio.arcademachine.pacman.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TripleBufferTest {
+
+    @Test
+    void publishTest() {
+        TripleBuffer<int[]> buffer = new TripleBuffer<>(() -> new int[1]);
+        assertFalse(buffer.hasUpdate());
+        buffer.getBackBuffer()[0] = 1;
+        buffer.publish();
+        assertTrue(buffer.hasUpdate());
+        assertEquals(1, buffer.acquire()[0]);
+        assertFalse(buffer.hasUpdate());
+        // Nothing new, so the same buffer is returned
+        assertEquals(1, buffer.acquire()[0]);
+        // Only the latest publish is seen
+        buffer.getBackBuffer()[0] = 2;
+        buffer.publish();
+        buffer.getBackBuffer()[0] = 3;
+        buffer.publish();
+        assertEquals(3, buffer.acquire()[0]);
+    }
+
+    @Test
+    void buffersAreReusedTest() {
+        TripleBuffer<int[]> buffer = new TripleBuffer<>(() -> new int[1]);
+        int[] front = buffer.acquire();
+        for (int i = 0; i < 10; i++) {
+            // The writer never gets the buffer the reader is holding
+            assertFalse(front == buffer.getBackBuffer());
+            buffer.publish();
+        }
+    }
+
+    @Test
+    void concurrentTest() throws InterruptedException {
+        int frames = 100000;
+        // Each buffer holds a frame number twice, so a torn buffer has two different numbers
+        TripleBuffer<int[]> buffer = new TripleBuffer<>(() -> new int[2]);
+        Thread writer = new Thread(() -> {
+            for (int i = 1; i <= frames; i++) {
+                int[] back = buffer.getBackBuffer();
+                back[0] = i;
+                back[1] = i;
+                buffer.publish();
+            }
+        });
+        writer.start();
+        int last = 0;
+        while (last < frames) {
+            int[] front = buffer.acquire();
+            assertEquals(front[0], front[1]);
+            assertTrue(front[0] >= last);
+            last = front[0];
+        }
+        writer.join();
+    }
+}
@@ -0,0 +1,33 @@
+package com.coolioasjulio.arcademachine.pacman.benchmarks;
+
+import com.coolioasjulio.arcademachine.pacman.LevelMap;
+import com.coolioasjulio.arcademachine.pacman.PacManGameHeadless;
+import com.coolioasjulio.arcademachine.pacman.ScriptedInput;
+
+/**
+ * A headless game that has been set up and run for one tick, so everything the ghosts depend on exists.
+ * This also exposes the parts of the game that are benchmarked.
+ */
+class BenchmarkGame extends PacManGameHeadless {
+
+    BenchmarkGame(LevelMap levelMap, int size) {
+        super(levelMap, size);
+        // Nobody is pressing any keys
+        setInput(new ScriptedInput());
+        simulate(1);
+    }
+
+    /**
+     * Move pac man to a tile and eat the pellets there. The pellet is put back afterwards, so every call has something to eat.
+     *
+     * @param x X coordinate of the tile.
+     * @param y Y coordinate of the tile.
+     * @return The score, so the work can't be optimized away.
+     */
+    int eatPelletsAt(int x, int y) {
+        pacMan.setLocalPosition(x * size, y * size);
+        eatPellets();
+        pellets.add(x, y);
+        return getScore();
+    }
+}
@@ -0,0 +1,68 @@
+package com.coolioasjulio.arcademachine.pacman.benchmarks;
+
+import com.coolioasjulio.arcademachine.pacman.engine.BoxCollider;
+import com.coolioasjulio.arcademachine.pacman.engine.CollisionWorld;
+import com.coolioasjulio.arcademachine.pacman.engine.GameObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finding all the intersecting pairs of objects, with the collision world and with pairwise checks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadPhaseBenchmark {
+    private static final int SIZE = Levels.TILE_SIZE;
+
+    @Param({"16", "256", "2048"})
+    public int numObjects;
+
+    private GameObject[] objects;
+    private CollisionWorld world;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(Levels.SEED);
+        // Spread the objects out like actors in a level, which is about 8 tiles per object
+        int bound = (int) Math.ceil(Math.sqrt(numObjects * 8.0)) * SIZE;
+        objects = new GameObject[numObjects];
+        world = new CollisionWorld(SIZE);
+        for (int i = 0; i < numObjects; i++) {
+            objects[i] = new GameObject(random.nextInt(bound), random.nextInt(bound), new BoxCollider(0, 0, SIZE, SIZE));
+            world.add(objects[i], 1, 1);
+        }
+    }
+
+    @Benchmark
+    public int collisionWorld() {
+        world.step();
+        return world.getNumContacts();
+    }
+
+    @Benchmark
+    public int pairwise() {
+        int contacts = 0;
+        for (int i = 0; i < objects.length; i++) {
+            for (int j = i + 1; j < objects.length; j++) {
+                if (objects[i].intersects(objects[j])) contacts++;
+            }
+        }
+        return contacts;
+    }
+}
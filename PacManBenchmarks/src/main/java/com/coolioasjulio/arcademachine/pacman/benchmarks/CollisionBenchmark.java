@@ -0,0 +1,79 @@
+package com.coolioasjulio.arcademachine.pacman.benchmarks;
+
+import com.coolioasjulio.arcademachine.pacman.Direction;
+import com.coolioasjulio.arcademachine.pacman.LevelMap;
+import com.coolioasjulio.arcademachine.pacman.Utils;
+import com.coolioasjulio.arcademachine.pacman.engine.BoxCollider;
+import com.coolioasjulio.arcademachine.pacman.engine.GameObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall collision checks, and moving objects through the level, which is built on top of them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+    private static final int NUM_QUERIES = 1024;
+    private static final int SIZE = Levels.TILE_SIZE;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    @Param({Levels.BUNDLED, "31", "63", "127"})
+    public String level;
+
+    private LevelMap levelMap;
+    private BoxCollider[] colliders;
+    private int[] tiles;
+    private Direction[] directions;
+    private GameObject obj;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        levelMap = Levels.load(level);
+        Random random = new Random(Levels.SEED);
+        // Colliders anywhere in the level, so some hit walls and some don't
+        colliders = new BoxCollider[NUM_QUERIES];
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            int x = random.nextInt(levelMap.getWidth() * SIZE);
+            int y = random.nextInt(levelMap.getHeight() * SIZE);
+            colliders[i] = new BoxCollider(x, y, SIZE, SIZE);
+        }
+        tiles = Levels.randomOpenTiles(levelMap, NUM_QUERIES, random);
+        directions = new Direction[NUM_QUERIES];
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            directions[i] = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+        }
+        obj = new GameObject(0, 0, new BoxCollider(0, 0, SIZE, SIZE));
+    }
+
+    @Benchmark
+    public boolean collides() {
+        return levelMap.collides(colliders[index++ & (NUM_QUERIES - 1)], SIZE);
+    }
+
+    @Benchmark
+    public int moveGameObject() {
+        int i = index++ & (NUM_QUERIES - 1);
+        int width = levelMap.getWidth();
+        obj.setLocalPosition(tiles[i] % width * SIZE, tiles[i] / width * SIZE);
+        Utils.moveGameObject(obj, levelMap, directions[i], SIZE / 6, SIZE);
+        return obj.getX() + obj.getY();
+    }
+}
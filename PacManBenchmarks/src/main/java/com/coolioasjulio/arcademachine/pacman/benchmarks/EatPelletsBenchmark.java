@@ -0,0 +1,52 @@
+package com.coolioasjulio.arcademachine.pacman.benchmarks;
+
+import com.coolioasjulio.arcademachine.pacman.LevelMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pac man eating pellets on random tiles of a level that is full of pellets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EatPelletsBenchmark {
+    private static final int NUM_QUERIES = 1024;
+
+    @Param({Levels.BUNDLED, "31", "63", "127"})
+    public String level;
+
+    private BenchmarkGame game;
+    private int[] tiles;
+    private int width;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        LevelMap levelMap = Levels.load(level);
+        game = new BenchmarkGame(levelMap, Levels.TILE_SIZE);
+        tiles = Levels.randomOpenTiles(levelMap, NUM_QUERIES, new Random(Levels.SEED));
+        width = levelMap.getWidth();
+    }
+
+    @Benchmark
+    public int eatPellets() {
+        int tile = tiles[index++ & (NUM_QUERIES - 1)];
+        return game.eatPelletsAt(tile % width, tile / width);
+    }
+}
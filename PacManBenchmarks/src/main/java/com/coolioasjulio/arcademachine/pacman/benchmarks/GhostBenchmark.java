@@ -0,0 +1,94 @@
+package com.coolioasjulio.arcademachine.pacman.benchmarks;
+
+import com.coolioasjulio.arcademachine.pacman.Direction;
+import com.coolioasjulio.arcademachine.pacman.FlowField;
+import com.coolioasjulio.arcademachine.pacman.GameState;
+import com.coolioasjulio.arcademachine.pacman.Ghost;
+import com.coolioasjulio.arcademachine.pacman.LevelMap;
+import com.coolioasjulio.arcademachine.pacman.behaviors.GhostAmbushBehavior;
+import com.coolioasjulio.arcademachine.pacman.behaviors.GhostChaseBehavior;
+import com.coolioasjulio.arcademachine.pacman.behaviors.GhostObliviousBehavior;
+import com.coolioasjulio.arcademachine.pacman.behaviors.GhostPinchBehavior;
+import com.coolioasjulio.arcademachine.pacman.engine.Coord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single ghost wandering the level with each of the behaviors. Pac man stands still at the spawn point.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GhostBenchmark {
+    private static final int SIZE = Levels.TILE_SIZE;
+    private static final double DT = 0.05; // One tick at 20Hz
+    private static final double GHOST_SPEED = 3.5; // tiles per second, same as the game
+
+    @Param({Levels.BUNDLED, "31", "63", "127"})
+    public String level;
+
+    @Param({"chase", "ambush", "pinch", "oblivious", "flee"})
+    public String behavior;
+
+    private LevelMap levelMap;
+    private GameState state;
+    private Ghost ghost;
+
+    @Setup
+    public void setUp() {
+        levelMap = Levels.load(level);
+        ghost = createGhost();
+        // Pac man and the pinch partner (ghost index 0) stay at the spawn point, so the snapshot never changes
+        Coord spawn = new Coord(levelMap.spawnX(), levelMap.spawnY());
+        FlowField flowField = new FlowField(levelMap, spawn.x, spawn.y);
+        state = new GameState(levelMap, SIZE, flowField, spawn, null, Direction.EAST, spawn);
+        switch (behavior) {
+            case "chase":
+                ghost.setBehavior(new GhostChaseBehavior(ghost));
+                break;
+            case "ambush":
+                ghost.setBehavior(new GhostAmbushBehavior(ghost));
+                break;
+            case "pinch":
+                ghost.setBehavior(new GhostPinchBehavior(ghost, 0));
+                break;
+            case "oblivious":
+                ghost.setBehavior(new GhostObliviousBehavior(ghost));
+                break;
+            case "flee":
+                ghost.setBehavior(new GhostChaseBehavior(ghost));
+                ghost.setFleeing(true);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown behavior: " + behavior);
+        }
+    }
+
+    private Ghost createGhost() {
+        Ghost g = new Ghost(levelMap.spawnX() * SIZE, levelMap.spawnY() * SIZE, SIZE, Color.RED, Color.BLUE);
+        g.setSpeed((int) Math.round(GHOST_SPEED * SIZE));
+        return g;
+    }
+
+    @Benchmark
+    public Ghost update() {
+        ghost.think(state);
+        ghost.update(levelMap, DT);
+        return ghost;
+    }
+}
@@ -0,0 +1,68 @@
+package com.coolioasjulio.arcademachine.pacman.benchmarks;
+
+import com.coolioasjulio.arcademachine.pacman.LevelMap;
+
+import javax.imageio.ImageIO;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The levels that the benchmarks run on.
+ */
+class Levels {
+    /**
+     * The level bundled with the game. Any other level name is the side length of a generated maze.
+     */
+    static final String BUNDLED = "bundled";
+    static final long SEED = 42;
+    /**
+     * The side length of a tile in pixels. This is the same as the default in the game.
+     */
+    static final int TILE_SIZE = 30;
+
+    /**
+     * Load a level by name.
+     *
+     * @param level Either {@link #BUNDLED}, or the side length of a generated maze.
+     * @return The level.
+     */
+    static LevelMap load(String level) {
+        if (BUNDLED.equals(level)) {
+            try {
+                return LevelMap.loadFromImg(ImageIO.read(Levels.class.getResourceAsStream("/pacmanlevel.png")));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return MazeGenerator.generate(Integer.parseInt(level), SEED);
+    }
+
+    /**
+     * Pick random open tiles from a level.
+     *
+     * @param levelMap The level to pick from.
+     * @param count    The number of tiles to pick. Tiles may be picked more than once.
+     * @param random   The random number generator to use.
+     * @return The picked tiles, as y * width + x.
+     */
+    static int[] randomOpenTiles(LevelMap levelMap, int count, Random random) {
+        int width = levelMap.getWidth();
+        int[] open = new int[width * levelMap.getHeight()];
+        int numOpen = 0;
+        for (int y = 0; y < levelMap.getHeight(); y++) {
+            for (int x = 0; x < width; x++) {
+                if (levelMap.isOpen(x, y)) {
+                    open[numOpen++] = y * width + x;
+                }
+            }
+        }
+        open = Arrays.copyOf(open, numOpen);
+        int[] tiles = new int[count];
+        for (int i = 0; i < count; i++) {
+            tiles[i] = open[random.nextInt(numOpen)];
+        }
+        return tiles;
+    }
+}
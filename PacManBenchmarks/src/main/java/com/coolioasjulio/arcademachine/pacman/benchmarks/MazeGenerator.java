@@ -0,0 +1,84 @@
+package com.coolioasjulio.arcademachine.pacman.benchmarks;
+
+import com.coolioasjulio.arcademachine.pacman.Direction;
+import com.coolioasjulio.arcademachine.pacman.LevelMap;
+import com.coolioasjulio.arcademachine.pacman.Utils;
+import com.coolioasjulio.arcademachine.pacman.engine.Coord;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates random mazes, so benchmarks can be run on levels of any size.
+ * The mazes are carved with a randomized depth first search, and then some extra walls are knocked down so there are
+ * loops, like in a real pac man level.
+ */
+public class MazeGenerator {
+    /**
+     * The fraction of the remaining walls between two passages that are knocked down to make loops.
+     */
+    private static final double LOOP_CHANCE = 0.15;
+
+    /**
+     * Generate a square maze.
+     *
+     * @param size The side length of the maze in tiles. This has to be an odd number, at least 5.
+     * @param seed The seed for the random number generator. The same seed always gives the same maze.
+     * @return The generated level. Pac man spawns in the top left corner, and there is a powerup in every corner.
+     */
+    public static LevelMap generate(int size, long seed) {
+        if (size < 5 || size % 2 == 0) {
+            throw new IllegalArgumentException("Maze size must be odd and at least 5!");
+        }
+        Random random = new Random(seed);
+        boolean[][] walls = new boolean[size][size];
+        for (boolean[] row : walls) {
+            Arrays.fill(row, true);
+        }
+
+        // Passages are on odd coordinates, and the walls between them are knocked down as the search goes
+        List<Direction> directions = new ArrayList<>();
+        Collections.addAll(directions, Direction.values());
+        Deque<Coord> stack = new ArrayDeque<>();
+        walls[1][1] = false;
+        stack.push(new Coord(1, 1));
+        while (!stack.isEmpty()) {
+            Coord curr = stack.peek();
+            Collections.shuffle(directions, random);
+            boolean moved = false;
+            for (Direction dir : directions) {
+                int x = curr.x + 2 * Utils.getDeltaX(dir);
+                int y = curr.y + 2 * Utils.getDeltaY(dir);
+                if (Utils.inRange(x, 1, size - 1) && Utils.inRange(y, 1, size - 1) && walls[y][x]) {
+                    walls[curr.y + Utils.getDeltaY(dir)][curr.x + Utils.getDeltaX(dir)] = false;
+                    walls[y][x] = false;
+                    stack.push(new Coord(x, y));
+                    moved = true;
+                    break;
+                }
+            }
+            if (!moved) {
+                stack.pop();
+            }
+        }
+
+        // Knock down some walls that separate two passages
+        for (int y = 1; y < size - 1; y++) {
+            for (int x = 1; x < size - 1; x++) {
+                boolean horizontal = !walls[y][x - 1] && !walls[y][x + 1] && walls[y - 1][x] && walls[y + 1][x];
+                boolean vertical = !walls[y - 1][x] && !walls[y + 1][x] && walls[y][x - 1] && walls[y][x + 1];
+                if (walls[y][x] && (horizontal || vertical) && random.nextDouble() < LOOP_CHANCE) {
+                    walls[y][x] = false;
+                }
+            }
+        }
+
+        int far = size - 2;
+        return new LevelMap(walls, 1, 1, new Coord(1, 1), new Coord(far, 1), new Coord(1, far), new Coord(far, far));
+    }
+}
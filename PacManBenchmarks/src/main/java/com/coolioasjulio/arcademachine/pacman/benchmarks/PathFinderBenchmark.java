@@ -0,0 +1,72 @@
+package com.coolioasjulio.arcademachine.pacman.benchmarks;
+
+import com.coolioasjulio.arcademachine.pacman.LevelMap;
+import com.coolioasjulio.arcademachine.pacman.PathFinder;
+import com.coolioasjulio.arcademachine.pacman.Utils;
+import com.coolioasjulio.arcademachine.pacman.engine.Coord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Path finding between random pairs of open tiles, with and without exclusions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathFinderBenchmark {
+    private static final int NUM_QUERIES = 1024;
+
+    @Param({Levels.BUNDLED, "31", "63", "127"})
+    public String level;
+
+    private LevelMap levelMap;
+    private int[] from, to;
+    private Coord[][] exclusions;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        levelMap = Levels.load(level);
+        Random random = new Random(Levels.SEED);
+        from = Levels.randomOpenTiles(levelMap, NUM_QUERIES, random);
+        to = Levels.randomOpenTiles(levelMap, NUM_QUERIES, random);
+        exclusions = new Coord[NUM_QUERIES][];
+        int width = levelMap.getWidth();
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            // Exclude the first step of the shortest path, so the search can't just use the cached path
+            int x = from[i] % width, y = from[i] / width;
+            PathFinder.PathFindingResult result = PathFinder.pathFind(levelMap, x, y, to[i] % width, to[i] / width);
+            exclusions[i] = result.direction == null || from[i] == to[i] ? new Coord[0] :
+                    new Coord[]{new Coord(x + Utils.getDeltaX(result.direction), y + Utils.getDeltaY(result.direction))};
+        }
+    }
+
+    @Benchmark
+    public PathFinder.PathFindingResult pathFind() {
+        int i = index++ & (NUM_QUERIES - 1);
+        int width = levelMap.getWidth();
+        return PathFinder.pathFind(levelMap, from[i] % width, from[i] / width, to[i] % width, to[i] / width);
+    }
+
+    @Benchmark
+    public PathFinder.PathFindingResult pathFindWithExclusions() {
+        int i = index++ & (NUM_QUERIES - 1);
+        int width = levelMap.getWidth();
+        return PathFinder.pathFind(levelMap, from[i] % width, from[i] / width, to[i] % width, to[i] / width, exclusions[i]);
+    }
+}